@@ -0,0 +1,272 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Objects;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Key navigation shared by the series that keep their buckets in a
+ * {@link BucketRing}.
+ *
+ * @author Andrei_Tytsik
+ */
+abstract class AbstractTimeSeries {
+
+    protected static final int DEFAULT_MAX_SIZE = 10;
+    protected static final TemporalUnit DEFAULT_GRANULARITY = ChronoUnit.MINUTES;
+
+    protected final boolean modifiable;
+    protected final int maxSize;
+    protected final BucketIndexer indexer;
+    protected final Clock clock;
+    protected final ZoneOffsetCache offsets;
+    private final CoarseClock.Bucket currentBucket;
+
+    protected AbstractTimeSeries(
+            boolean modifiable,
+            int maxSize,
+            TemporalUnit granularity,
+            Clock clock) {
+        Validate.isTrue(maxSize > 0, "Max size is invalid");
+        Validate.notNull(granularity, "Granularity is null");
+        Validate.notNull(clock, "Clock is null");
+
+        this.modifiable = modifiable;
+        this.maxSize = maxSize;
+        this.indexer = BucketIndexer.of(granularity);
+        this.clock = clock;
+        this.offsets = ZoneOffsetCache.of(clock.getZone());
+        this.currentBucket = CoarseClock.bucketOf(clock, indexer);
+    }
+
+    abstract BucketRing ring();
+
+    public int size() {
+        return ring().size();
+    }
+
+    public TemporalUnit getGranularity() {
+        return indexer.getUnit();
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public LocalDateTime key(LocalDateTime date) {
+        return resolveKey(indexOf(date));
+    }
+
+    public LocalDateTime lastKey() {
+        return resolveKey(ring().size() - 1);
+    }
+
+    public LocalDateTime firstKey() {
+        return resolveKey(ring().isEmpty() ? -1 : 0);
+    }
+
+    public LocalDateTime previousKey(LocalDateTime date) {
+        return resolveKey(previousIndexOf(date));
+    }
+
+    public LocalDateTime nextKey(LocalDateTime date) {
+        return resolveKey(nextIndexOf(date));
+    }
+
+    public LocalDateTime previousSerialKey(LocalDateTime date) {
+        return resolveKey(previousSerialIndexOf(date));
+    }
+
+    public LocalDateTime nextSerialKey(LocalDateTime date) {
+        return resolveKey(nextSerialIndexOf(date));
+    }
+
+    /**
+     * Returns the bucket of the current time of the clock, which is read as is
+     * from a {@link CoarseClock}.
+     */
+    protected final long currentBucket() {
+        return currentBucket != null ? currentBucket.get() : bucketOf(clock.millis());
+    }
+
+    protected final long bucketOf(long epochMilli) {
+        return indexer.indexOfLocalMillis(offsets.toLocalMillis(epochMilli));
+    }
+
+    public LocalDateTime keyAt(int index) {
+        Objects.checkIndex(index, ring().size());
+
+        return resolveKey(index);
+    }
+
+    protected final LocalDateTime resolveKey(int index) {
+        return index >= 0 ? indexer.key(ring().bucket(index)) : null;
+    }
+
+    protected final int indexOf(LocalDateTime date) {
+        Validate.notNull(date, "Date is null");
+
+        int index = ring().indexOf(indexer.index(date));
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Returns the index of the first bucket whose key isn't lower than the date,
+     * or the size of the series if there is no such bucket.
+     */
+    protected final int ceilingIndexOf(LocalDateTime date) {
+        int index = ring().indexOf(indexer.index(date.minusNanos(1)) + 1);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the index of the bucket before the one of the date, or {@code -1}
+     * if there is no such bucket or the date's bucket doesn't exist, as for
+     * {@link TimeSeries}.
+     */
+    protected final int previousIndexOf(LocalDateTime date) {
+        int index = indexOf(date);
+        return index > 0 ? index - 1 : -1;
+    }
+
+    /**
+     * Returns the index of the bucket after the one of the date, or {@code -1}
+     * if there is no such bucket or the date's bucket doesn't exist, as for
+     * {@link TimeSeries}.
+     */
+    protected final int nextIndexOf(LocalDateTime date) {
+        int index = indexOf(date);
+        return index >= 0 && index < ring().size() - 1 ? index + 1 : -1;
+    }
+
+    protected final int previousSerialIndexOf(LocalDateTime date) {
+        Validate.notNull(date, "Date is null");
+
+        int index = ring().indexOf(indexer.index(date) - 1);
+        return index >= 0 ? index : -1;
+    }
+
+    protected final int nextSerialIndexOf(LocalDateTime date) {
+        Validate.notNull(date, "Date is null");
+
+        int index = ring().indexOf(indexer.index(date) + 1);
+        return index >= 0 ? index : -1;
+    }
+
+    protected final void validateModifiable() {
+        if (!modifiable) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Validates the bucket isn't lower than the last one and evicts the first
+     * bucket if the new one doesn't fit. Returns {@code true} if the bucket is
+     * the last one and its value has to be merged.
+     */
+    protected final boolean prepareAppend(long bucket) {
+        BucketRing ring = ring();
+        if (ring.isEmpty()) {
+            return false;
+        }
+
+        long lastBucket = ring.lastBucket();
+        if (bucket == lastBucket) {
+            return true;
+        }
+        if (bucket < lastBucket) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Date %s is lower than last timeseries' date %s",
+                            indexer.key(bucket), indexer.key(lastBucket)));
+        }
+
+        if (ring.isFull()) {
+            ring.removeFirst();
+        }
+        return false;
+    }
+
+    /**
+     * Resolves buckets of the epoch millis of a batch and validates that they
+     * are ordered and not lower than the last bucket of the series.
+     */
+    protected final long[] bucketsOf(long[] dates) {
+        BucketRing ring = ring();
+        long[] buckets = new long[dates.length];
+        long previousBucket = ring.isEmpty() ? Long.MIN_VALUE : ring.lastBucket();
+        for (int i = 0; i < dates.length; i++) {
+            long bucket = bucketOf(dates[i]);
+            if (bucket < previousBucket) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Date %s is lower than last timeseries' date %s",
+                                indexer.key(bucket), indexer.key(previousBucket)));
+            }
+            buckets[i] = previousBucket = bucket;
+        }
+        return buckets;
+    }
+
+    /**
+     * Makes room for a batch of ordered buckets (see {@link #bucketsOf(long[])})
+     * by evicting once all the buckets which wouldn't survive it. Returns the
+     * index of the first point of the batch that has to be appended, the points
+     * before it would be evicted by the batch itself.
+     */
+    protected final int prepareAppendAll(long[] buckets) {
+        BucketRing ring = ring();
+        boolean empty = ring.isEmpty();
+        long lastBucket = empty ? Long.MIN_VALUE : ring.lastBucket();
+
+        int distinct = 0;
+        long previousBucket = lastBucket;
+        for (int i = 0; i < buckets.length; i++) {
+            if ((empty && i == 0) || buckets[i] != previousBucket) {
+                distinct++;
+                previousBucket = buckets[i];
+            }
+        }
+
+        int excess = distinct - maxSize;
+        if (excess < 0) {
+            for (int evict = ring.size() + distinct - maxSize; evict > 0; evict--) {
+                ring.removeFirst();
+            }
+            return 0;
+        }
+
+        ring.clear();
+        int from = 0;
+        while (!empty && from < buckets.length && buckets[from] == lastBucket) {
+            from++;
+        }
+        for (int skipped = 0; skipped < excess; skipped++) {
+            long bucket = buckets[from];
+            while (from < buckets.length && buckets[from] == bucket) {
+                from++;
+            }
+        }
+        return from;
+    }
+
+}
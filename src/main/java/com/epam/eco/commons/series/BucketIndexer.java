@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Maps dates to serial bucket indexes (and back) using plain arithmetic on the
+ * local epoch, so that bucket {@code n} starts at {@code n * granularity}
+ * counting from {@code 1970-01-01T00:00}. For the supported chrono units this
+ * gives exactly the same keys as {@link LocalDateTime#truncatedTo(TemporalUnit)},
+ * and {@link DurationUnit}s of any length are supported as they are.
+ * <p>
+ * Sub-second granularities are resolved in epoch nanos, which fit in a
+ * {@code long} up to 2262; dates beyond that are resolved exactly but slower,
+ * and fail with {@link ArithmeticException} only if the index doesn't fit.
+ *
+ * @author Andrei_Tytsik
+ */
+final class BucketIndexer {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_DAY = SECONDS_PER_DAY * NANOS_PER_SECOND;
+    private static final long MAX_EXACT_SECONDS = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+    private static final BigInteger BIG_NANOS_PER_SECOND = BigInteger.valueOf(NANOS_PER_SECOND);
+
+    private final TemporalUnit unit;
+    private final long seconds;
+    private final long millis;
+    private final long nanos;
+    private final long maxExactIndex;
+
+    private BucketIndexer(TemporalUnit unit, long nanos) {
+        this.unit = unit;
+        this.nanos = nanos;
+        this.seconds = nanos % NANOS_PER_SECOND == 0 ? nanos / NANOS_PER_SECOND : 0;
+        this.millis = seconds * 1000;
+        this.maxExactIndex = Long.MAX_VALUE / nanos;
+    }
+
+    public static BucketIndexer of(TemporalUnit unit) {
+        Validate.notNull(unit, "Granularity is null");
+
+        if (unit == ChronoUnit.NANOS) {
+            return new BucketIndexer(unit, 1);
+        }
+        if (unit instanceof DurationUnit) {
+            return new BucketIndexer(unit, unit.getDuration().toNanos());
+        }
+
+        Duration duration = unit.getDuration();
+        if (duration.getSeconds() > SECONDS_PER_DAY) {
+            throw new UnsupportedTemporalTypeException("Unit is too large to be used for truncation");
+        }
+        long nanos = duration.toNanos();
+        if (NANOS_PER_DAY % nanos != 0) {
+            throw new UnsupportedTemporalTypeException("Unit must divide into a standard day without remainder");
+        }
+
+        return new BucketIndexer(unit, nanos);
+    }
+
+    public TemporalUnit getUnit() {
+        return unit;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long index(LocalDateTime date) {
+        long epochSecond = date.toEpochSecond(ZoneOffset.UTC);
+        if (seconds > 0) {
+            return Math.floorDiv(epochSecond, seconds);
+        }
+        return indexOfEpochNano(epochSecond, date.getNano());
+    }
+
+    public long indexOfLocalMillis(long localMillis) {
+        if (millis > 0) {
+            return Math.floorDiv(localMillis, millis);
+        }
+        return indexOfEpochNano(
+                Math.floorDiv(localMillis, 1000L),
+                Math.floorMod(localMillis, 1000L) * NANOS_PER_MILLI);
+    }
+
+    public LocalDateTime key(long index) {
+        if (seconds > 0) {
+            return LocalDateTime.ofEpochSecond(Math.multiplyExact(index, seconds), 0, ZoneOffset.UTC);
+        }
+        if (index >= -maxExactIndex && index <= maxExactIndex) {
+            long epochNano = index * nanos;
+            return LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(epochNano, NANOS_PER_SECOND),
+                    (int) Math.floorMod(epochNano, NANOS_PER_SECOND),
+                    ZoneOffset.UTC);
+        }
+
+        BigInteger[] secondAndNano = BigInteger.valueOf(index)
+                .multiply(BigInteger.valueOf(nanos))
+                .divideAndRemainder(BIG_NANOS_PER_SECOND);
+        long epochSecond = secondAndNano[0].longValueExact();
+        long nano = secondAndNano[1].longValue();
+        if (nano < 0) {
+            epochSecond--;
+            nano += NANOS_PER_SECOND;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, (int) nano, ZoneOffset.UTC);
+    }
+
+    private long indexOfEpochNano(long epochSecond, long nano) {
+        if (epochSecond >= -MAX_EXACT_SECONDS && epochSecond <= MAX_EXACT_SECONDS) {
+            return Math.floorDiv(epochSecond * NANOS_PER_SECOND + nano, nanos);
+        }
+
+        BigInteger[] indexAndRest = BigInteger.valueOf(epochSecond)
+                .multiply(BIG_NANOS_PER_SECOND)
+                .add(BigInteger.valueOf(nano))
+                .divideAndRemainder(BigInteger.valueOf(nanos));
+        long index = indexAndRest[0].longValueExact();
+        return indexAndRest[1].signum() < 0 ? Math.subtractExact(index, 1) : index;
+    }
+
+}
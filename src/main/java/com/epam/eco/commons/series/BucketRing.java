@@ -0,0 +1,233 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+/**
+ * Circular buffer of ascending bucket indexes. Values are kept by subclasses in
+ * parallel arrays addressed by the same physical slots. The buffer grows up to
+ * its capacity and never allocates afterwards.
+ *
+ * @author Andrei_Tytsik
+ */
+abstract class BucketRing {
+
+    private static final int INITIAL_LENGTH = 16;
+    private static final int MAX_LENGTH = 1 << 30;
+
+    private final int capacity;
+
+    private long[] buckets;
+    private int mask;
+    private int head;
+    private int size;
+
+    protected BucketRing(int capacity) {
+        this.capacity = capacity;
+
+        int length = lengthFor(Math.min(capacity, INITIAL_LENGTH));
+        this.buckets = new long[length];
+        this.mask = length - 1;
+    }
+
+    protected BucketRing(BucketRing source) {
+        this.capacity = source.capacity;
+        this.buckets = source.buckets.clone();
+        this.mask = source.mask;
+        this.head = source.head;
+        this.size = source.size;
+    }
+
+    protected final int length() {
+        return buckets.length;
+    }
+
+    public final int capacity() {
+        return capacity;
+    }
+
+    public final int size() {
+        return size;
+    }
+
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    public final boolean isFull() {
+        return size == capacity;
+    }
+
+    public final int slot(int index) {
+        return (head + index) & mask;
+    }
+
+    public final long bucket(int index) {
+        return buckets[slot(index)];
+    }
+
+    public final long firstBucket() {
+        return buckets[head];
+    }
+
+    public final long lastBucket() {
+        return buckets[slot(size - 1)];
+    }
+
+    /**
+     * Returns the index of the bucket or {@code -(insertion point) - 1} if there
+     * is no such bucket. Dense rings are resolved arithmetically, sparse ones by
+     * binary search.
+     */
+    public final int indexOf(long bucket) {
+        if (size == 0) {
+            return -1;
+        }
+
+        long first = firstBucket();
+        if (bucket < first) {
+            return -1;
+        }
+        long last = lastBucket();
+        if (bucket > last) {
+            return -size - 1;
+        }
+        if (last - first == size - 1) {
+            return (int) (bucket - first);
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midBucket = bucket(mid);
+            if (midBucket < bucket) {
+                low = mid + 1;
+            } else if (midBucket > bucket) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Appends the bucket (which must be greater than the last one) and returns
+     * its slot. The ring must not be full.
+     */
+    public final int addLast(long bucket) {
+        if (size == buckets.length) {
+            grow();
+        }
+        int slot = slot(size);
+        buckets[slot] = bucket;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Inserts the bucket (which must fit the order) at the index, shifting the
+     * later buckets, and returns its slot. Meant for rare out-of-order buckets
+     * close to the end, as the cost is linear in the number of shifted buckets.
+     */
+    public final int insert(int index, long bucket) {
+        if (size == buckets.length) {
+            grow();
+        }
+        for (int i = size; i > index; i--) {
+            int to = slot(i);
+            int from = slot(i - 1);
+            buckets[to] = buckets[from];
+            moveValue(from, to);
+        }
+        int slot = slot(index);
+        buckets[slot] = bucket;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Removes the bucket at the index, shifting the later buckets.
+     */
+    public final void remove(int index) {
+        for (int i = index; i < size - 1; i++) {
+            int to = slot(i);
+            int from = slot(i + 1);
+            buckets[to] = buckets[from];
+            moveValue(from, to);
+        }
+        clearValue(slot(size - 1));
+        size--;
+    }
+
+    public final void removeFirst() {
+        clearValue(head);
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    public final void clear() {
+        for (int i = 0; i < size; i++) {
+            clearValue(slot(i));
+        }
+        head = 0;
+        size = 0;
+    }
+
+    protected abstract void resizeValues(int length);
+
+    protected abstract void clearValue(int slot);
+
+    protected abstract void moveValue(int fromSlot, int toSlot);
+
+    /**
+     * Copies values in index order into the given array of the new length,
+     * helper for {@link #resizeValues(int)}.
+     */
+    protected final void copyInOrder(Object source, Object target) {
+        int tail = buckets.length - head;
+        if (size <= tail) {
+            System.arraycopy(source, head, target, 0, size);
+        } else {
+            System.arraycopy(source, head, target, 0, tail);
+            System.arraycopy(source, 0, target, tail, size - tail);
+        }
+    }
+
+    private void grow() {
+        if (buckets.length >= MAX_LENGTH) {
+            throw new IllegalStateException("Ring is too large");
+        }
+        int length = buckets.length << 1;
+
+        resizeValues(length);
+
+        long[] resized = new long[length];
+        copyInOrder(buckets, resized);
+        buckets = resized;
+        mask = length - 1;
+        head = 0;
+    }
+
+    private static int lengthFor(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 1));
+        if (length < capacity) {
+            length <<= 1;
+        }
+        return Math.min(length, MAX_LENGTH);
+    }
+
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Thread-safe series for very hot writes. Every writer thread appends into a
+ * small buffer of its own, which takes an array store and an ordered write,
+ * and the buffers are drained into a shared {@link TimeSeries} through its
+ * {@link MergeFunction} when a reader asks, when a writer moves on to a later
+ * bucket, or when a buffer fills up. So writes don't contend, while reads pay
+ * for the merge.
+ * <p>
+ * Values of different threads are merged in no particular order, so the
+ * merge function is expected to be commutative, e.g. a sum, min or max, and
+ * values should not be modified after they are appended.
+ *
+ * @author Andrei_Tytsik
+ */
+public class BufferedTimeSeries<V> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64;
+
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final TemporalUnit DEFAULT_GRANULARITY = ChronoUnit.MINUTES;
+
+    private final TimeSeries<V> series;
+    private final int bufferSize;
+    private final Clock clock;
+    private final BucketIndexer indexer;
+    private final ZoneOffsetCache offsets;
+    private final CoarseClock.Bucket currentBucket;
+    private final Queue<Buffer<V>> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffer<V>> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+
+    public BufferedTimeSeries(MergeFunction<V> mergeFunction) {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY, mergeFunction);
+    }
+
+    public BufferedTimeSeries(int maxSize, MergeFunction<V> mergeFunction) {
+        this(maxSize, DEFAULT_GRANULARITY, mergeFunction);
+    }
+
+    public BufferedTimeSeries(TemporalUnit granularity, MergeFunction<V> mergeFunction) {
+        this(DEFAULT_MAX_SIZE, granularity, mergeFunction);
+    }
+
+    public BufferedTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction) {
+        this(maxSize, granularity, mergeFunction, Clock.systemDefaultZone());
+    }
+
+    public BufferedTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock) {
+        this(maxSize, granularity, mergeFunction, clock, DEFAULT_BUFFER_SIZE);
+    }
+
+    public BufferedTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock,
+            int bufferSize) {
+        Validate.isTrue(
+                bufferSize > 0 && Integer.bitCount(bufferSize) == 1,
+                "Buffer size is not a power of two");
+
+        this.series = new TimeSeries<>(maxSize, granularity, mergeFunction, clock);
+        this.bufferSize = bufferSize;
+        this.clock = clock;
+        this.indexer = BucketIndexer.of(granularity);
+        this.offsets = ZoneOffsetCache.of(clock.getZone());
+        this.currentBucket = CoarseClock.bucketOf(clock, indexer);
+    }
+
+    public void append(V value) {
+        Validate.notNull(value, "Value is null");
+
+        long bucket = currentBucket != null
+                ? currentBucket.get()
+                : indexer.indexOfLocalMillis(offsets.toLocalMillis(clock.millis()));
+        append(bucket, value, localBuffer.get());
+    }
+
+    public void append(long date, V value) {
+        Validate.notNull(value, "Value is null");
+
+        append(indexer.indexOfLocalMillis(offsets.toLocalMillis(date)), value, localBuffer.get());
+    }
+
+    public void append(LocalDateTime date, V value) {
+        Validate.notNull(date, "Date is null");
+        Validate.notNull(value, "Value is null");
+
+        append(indexer.index(date), value, localBuffer.get());
+    }
+
+    /**
+     * Drains the buffers of all threads into the shared series.
+     */
+    public void flush() {
+        synchronized (series) {
+            for (Iterator<Buffer<V>> iterator = buffers.iterator(); iterator.hasNext(); ) {
+                Buffer<V> buffer = iterator.next();
+                buffer.drainTo(series);
+                // a dead owner won't append to its buffer anymore
+                if (!buffer.owner.isAlive()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (series) {
+            flush();
+            return series.size();
+        }
+    }
+
+    public LocalDateTime lastKey() {
+        synchronized (series) {
+            flush();
+            return series.lastKey();
+        }
+    }
+
+    public V lastValue() {
+        synchronized (series) {
+            flush();
+            return series.lastValue();
+        }
+    }
+
+    public V value(LocalDateTime date) {
+        synchronized (series) {
+            flush();
+            return series.value(date);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable copy of the series with the buffers of all
+     * threads merged.
+     */
+    public TimeSeries<V> snapshot() {
+        synchronized (series) {
+            flush();
+            return series.unmodifiableCopy();
+        }
+    }
+
+    public TemporalUnit getGranularity() {
+        return series.getGranularity();
+    }
+
+    public int getMaxSize() {
+        return series.getMaxSize();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    private void append(long bucket, V value, Buffer<V> buffer) {
+        if (buffer.rollsOver(bucket) || buffer.isFull()) {
+            synchronized (series) {
+                buffer.drainTo(series);
+            }
+        }
+        buffer.add(bucket, value);
+    }
+
+    private Buffer<V> registerBuffer() {
+        Buffer<V> buffer = new Buffer<>(Thread.currentThread(), bufferSize);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Single-producer ring of appended values: the owner thread publishes
+     * them by an ordered write of the tail, and they are consumed under the
+     * series lock, which releases their slots by an ordered write of the head.
+     */
+    private static final class Buffer<V> {
+
+        private final Thread owner;
+        private final int mask;
+        private final long[] buckets;
+        private final Object[] values;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        private long ownerTail;
+        private long ownerHead;
+        private long lastBucket = Long.MIN_VALUE;
+
+        private Buffer(Thread owner, int size) {
+            this.owner = owner;
+            this.mask = size - 1;
+            this.buckets = new long[size];
+            this.values = new Object[size];
+        }
+
+        private boolean rollsOver(long bucket) {
+            return bucket > lastBucket && lastBucket != Long.MIN_VALUE && ownerTail > ownerHead;
+        }
+
+        private boolean isFull() {
+            if (ownerTail - ownerHead <= mask) {
+                return false;
+            }
+            ownerHead = head.get();
+            return ownerTail - ownerHead > mask;
+        }
+
+        private void add(long bucket, V value) {
+            int index = (int) ownerTail & mask;
+            buckets[index] = bucket;
+            values[index] = value;
+            tail.lazySet(++ownerTail);
+            lastBucket = Math.max(lastBucket, bucket);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drainTo(TimeSeries<V> series) {
+            long from = head.get();
+            long to = tail.get();
+            for (long i = from; i < to; i++) {
+                int index = (int) i & mask;
+                V value = (V) values[index];
+                values[index] = null;
+                series.appendToBucket(buckets[index], value);
+            }
+            head.lazySet(to);
+            if (Thread.currentThread() == owner) {
+                ownerHead = to;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Clock that reads its source clock once per tick, so that reading it is a
+ * volatile read. Besides the time, it keeps the current bucket index of every
+ * granularity used by the series that run on it, so their
+ * {@code append(value)} doesn't resolve the bucket either. The clock and the
+ * buckets lag behind the source by up to a tick, which is meant to be much
+ * shorter than granularity.
+ * <p>
+ * One clock is meant to be shared by many series, see {@link #shared()}.
+ * Clocks returned by {@link #withZone(ZoneId)} share the ticking thread of
+ * this one, which is stopped by {@link #close()}.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class CoarseClock extends Clock implements Closeable {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    public CoarseClock() {
+        this(Clock.systemDefaultZone(), DEFAULT_TICK);
+    }
+
+    public CoarseClock(Duration tick) {
+        this(Clock.systemDefaultZone(), tick);
+    }
+
+    public CoarseClock(Clock source, Duration tick) {
+        this(new Ticker(source, tick), source.getZone());
+    }
+
+    private CoarseClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    /**
+     * Returns the clock of the default zone with the default tick, which is
+     * shared by the whole JVM and never closed.
+     */
+    public static CoarseClock shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Reads the source clock and updates the time and the buckets now, without
+     * waiting for the next tick.
+     */
+    public void update() {
+        ticker.update();
+    }
+
+    public Duration getTick() {
+        return ticker.tick;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public CoarseClock withZone(ZoneId zone) {
+        Validate.notNull(zone, "Zone is null");
+
+        return this.zone.equals(zone) ? this : new CoarseClock(ticker, zone);
+    }
+
+    @Override
+    public long millis() {
+        return ticker.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.millis);
+    }
+
+    @Override
+    public void close() {
+        ticker.executor.shutdownNow();
+    }
+
+    /**
+     * Returns the current bucket of the granularity in the zone of this clock.
+     */
+    Bucket bucket(BucketIndexer indexer) {
+        return ticker.bucket(zone, indexer);
+    }
+
+    /**
+     * Returns the current bucket of the granularity if the clock is coarse,
+     * or {@code null} otherwise.
+     */
+    static Bucket bucketOf(Clock clock, BucketIndexer indexer) {
+        return clock instanceof CoarseClock ? ((CoarseClock) clock).bucket(indexer) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseClock[" + zone + "," + ticker.tick + "]";
+    }
+
+    static final class Bucket {
+
+        private final ZoneId zone;
+        private final BucketIndexer indexer;
+        private final ZoneOffsetCache offsets;
+        private volatile long index;
+
+        private Bucket(ZoneId zone, BucketIndexer indexer) {
+            this.zone = zone;
+            this.indexer = indexer;
+            this.offsets = ZoneOffsetCache.of(zone);
+        }
+
+        long get() {
+            return index;
+        }
+
+        private void update(long millis) {
+            index = indexer.indexOfLocalMillis(offsets.toLocalMillis(millis));
+        }
+
+        private boolean matches(ZoneId zone, BucketIndexer indexer) {
+            return this.zone.equals(zone) && this.indexer.getNanos() == indexer.getNanos();
+        }
+
+    }
+
+    private static final class Ticker {
+
+        private final Clock source;
+        private final Duration tick;
+        private final List<Bucket> buckets = new CopyOnWriteArrayList<>();
+        private final Object bucketsLock = new Object();
+        private final ScheduledExecutorService executor;
+        private volatile long millis;
+
+        private Ticker(Clock source, Duration tick) {
+            Validate.notNull(source, "Source clock is null");
+            Validate.notNull(tick, "Tick is null");
+            Validate.isTrue(!tick.isNegative() && !tick.isZero(), "Tick is invalid");
+
+            this.source = source;
+            this.tick = tick;
+            this.millis = source.millis();
+
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "coarse-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(
+                    this::update,
+                    tick.toNanos(),
+                    tick.toNanos(),
+                    TimeUnit.NANOSECONDS);
+        }
+
+        private void update() {
+            long now = source.millis();
+            for (Bucket bucket : buckets) {
+                bucket.update(now);
+            }
+            millis = now;
+        }
+
+        private Bucket bucket(ZoneId zone, BucketIndexer indexer) {
+            synchronized (bucketsLock) {
+                for (Bucket bucket : buckets) {
+                    if (bucket.matches(zone, indexer)) {
+                        return bucket;
+                    }
+                }
+                Bucket bucket = new Bucket(zone, indexer);
+                bucket.update(millis);
+                buckets.add(bucket);
+                return bucket;
+            }
+        }
+
+    }
+
+    private static final class SharedHolder {
+
+        private static final CoarseClock INSTANCE = new CoarseClock();
+
+    }
+
+}
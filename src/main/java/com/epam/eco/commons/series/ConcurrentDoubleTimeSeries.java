@@ -0,0 +1,83 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.temporal.TemporalUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * {@link ConcurrentTimeSeries} that sums {@code double} values in {@link DoubleAdder}
+ * cells.
+ *
+ * @author Andrei_Tytsik
+ */
+public class ConcurrentDoubleTimeSeries extends ConcurrentTimeSeries<Double> {
+
+    public ConcurrentDoubleTimeSeries() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY);
+    }
+
+    public ConcurrentDoubleTimeSeries(int maxSize) {
+        this(maxSize, DEFAULT_GRANULARITY);
+    }
+
+    public ConcurrentDoubleTimeSeries(TemporalUnit granularity) {
+        this(DEFAULT_MAX_SIZE, granularity);
+    }
+
+    public ConcurrentDoubleTimeSeries(int maxSize, TemporalUnit granularity) {
+        this(maxSize, granularity, Clock.systemDefaultZone());
+    }
+
+    public ConcurrentDoubleTimeSeries(int maxSize, TemporalUnit granularity, Clock clock) {
+        super(maxSize, granularity, MergeFunction.addDouble(), clock);
+    }
+
+    public void add(double value) {
+        ((DoubleCell) cell(currentBucket())).adder.add(value);
+    }
+
+    public void add(long date, double value) {
+        ((DoubleCell) cell(bucketOf(date))).adder.add(value);
+    }
+
+    @Override
+    Cell newCell(long bucket) {
+        return new DoubleCell(bucket);
+    }
+
+    @Override
+    void accumulate(Cell cell, Double value) {
+        ((DoubleCell) cell).adder.add(value);
+    }
+
+    private static final class DoubleCell extends Cell {
+
+        private final DoubleAdder adder = new DoubleAdder();
+
+        private DoubleCell(long bucket) {
+            super(bucket);
+        }
+
+        @Override
+        Number sum() {
+            return adder.sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.collections4.map.LinkedMap;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Thread-safe series for additive values, see {@link ConcurrentLongTimeSeries}
+ * and {@link ConcurrentDoubleTimeSeries}. Every serial bucket is accumulated in
+ * a striped adder cell, and cells are rolled over to a new bucket by a CAS on
+ * their ring slot, so writers never block each other.
+ * <p>
+ * Unlike {@link TimeSeries}, the series keeps the last {@code maxSize} serial
+ * buckets (counting from the latest appended one), so values may arrive out of
+ * order as long as they aren't older than that window.
+ *
+ * @author Andrei_Tytsik
+ */
+public abstract class ConcurrentTimeSeries<V extends Number> {
+
+    protected static final int DEFAULT_MAX_SIZE = 10;
+    protected static final TemporalUnit DEFAULT_GRANULARITY = ChronoUnit.MINUTES;
+
+    private final int maxSize;
+    private final MergeFunction<V> mergeFunction;
+    private final Clock clock;
+    private final BucketIndexer indexer;
+    private final ZoneOffsetCache offsets;
+    private final CoarseClock.Bucket currentBucket;
+    private final AtomicReferenceArray<Cell> cells;
+    private final AtomicLong lastBucket = new AtomicLong(Long.MIN_VALUE);
+
+    ConcurrentTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock) {
+        Validate.isTrue(maxSize > 0, "Max size is invalid");
+        Validate.notNull(granularity, "Granularity is null");
+        Validate.notNull(clock, "Clock is null");
+
+        this.maxSize = maxSize;
+        this.mergeFunction = mergeFunction;
+        this.clock = clock;
+        this.indexer = BucketIndexer.of(granularity);
+        this.offsets = ZoneOffsetCache.of(clock.getZone());
+        this.currentBucket = CoarseClock.bucketOf(clock, indexer);
+        this.cells = new AtomicReferenceArray<>(maxSize);
+    }
+
+    public void append(V value) {
+        Validate.notNull(value, "Value is null");
+
+        accumulate(cell(currentBucket()), value);
+    }
+
+    public void append(long date, V value) {
+        Validate.notNull(value, "Value is null");
+
+        accumulate(cell(bucketOf(date)), value);
+    }
+
+    public void append(LocalDateTime date, V value) {
+        Validate.notNull(date, "Date is null");
+        Validate.notNull(value, "Value is null");
+
+        accumulate(cell(indexer.index(date)), value);
+    }
+
+    public int size() {
+        long last = lastBucket.get();
+        int size = 0;
+        for (int i = 0; i < maxSize; i++) {
+            Cell cell = cells.get(i);
+            if (cell != null && isRetained(cell.bucket, last)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public TemporalUnit getGranularity() {
+        return indexer.getUnit();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public LocalDateTime lastKey() {
+        long last = lastBucket.get();
+        return last != Long.MIN_VALUE ? indexer.key(last) : null;
+    }
+
+    public V lastValue() {
+        long last = lastBucket.get();
+        return last != Long.MIN_VALUE ? valueOf(last, last) : null;
+    }
+
+    public V value(LocalDateTime date) {
+        Validate.notNull(date, "Date is null");
+
+        return valueOf(indexer.index(date), lastBucket.get());
+    }
+
+    /**
+     * Returns an unmodifiable {@link TimeSeries} with the current sum of every
+     * retained bucket.
+     */
+    public TimeSeries<V> snapshot() {
+        long last = lastBucket.get();
+
+        Map<LocalDateTime, V> data = new LinkedMap<>(maxSize);
+        if (last != Long.MIN_VALUE) {
+            for (long bucket = last - maxSize + 1; bucket <= last; bucket++) {
+                V value = valueOf(bucket, last);
+                if (value != null) {
+                    data.put(indexer.key(bucket), value);
+                }
+            }
+        }
+
+        return new TimeSeries<>(false, maxSize, indexer.getUnit(), mergeFunction, clock, data);
+    }
+
+    final long currentBucket() {
+        return currentBucket != null ? currentBucket.get() : bucketOf(clock.millis());
+    }
+
+    final long bucketOf(long date) {
+        return indexer.indexOfLocalMillis(offsets.toLocalMillis(date));
+    }
+
+    private boolean isRetained(long bucket, long last) {
+        return bucket <= last && bucket > last - maxSize;
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) maxSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueOf(long bucket, long last) {
+        if (!isRetained(bucket, last)) {
+            return null;
+        }
+
+        Cell cell = cells.get(slotOf(bucket));
+        if (cell == null || cell.bucket != bucket) {
+            return null;
+        }
+        return (V) cell.sum();
+    }
+
+    final Cell cell(long bucket) {
+        int slot = slotOf(bucket);
+        for (;;) {
+            Cell cell = cells.get(slot);
+            if (cell != null && cell.bucket == bucket) {
+                return cell;
+            }
+
+            long last = lastBucket.get();
+            if ((cell != null && cell.bucket > bucket) || (last != Long.MIN_VALUE && bucket <= last - maxSize)) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Date %s is out of timeseries' window ending at %s",
+                                indexer.key(bucket), indexer.key(last)));
+            }
+
+            Cell rolled = newCell(bucket);
+            if (cells.compareAndSet(slot, cell, rolled)) {
+                advanceLastBucket(bucket);
+                return rolled;
+            }
+        }
+    }
+
+    private void advanceLastBucket(long bucket) {
+        long last;
+        do {
+            last = lastBucket.get();
+            if (last >= bucket) {
+                return;
+            }
+        } while (!lastBucket.compareAndSet(last, bucket));
+    }
+
+    abstract Cell newCell(long bucket);
+
+    abstract void accumulate(Cell cell, V value);
+
+    abstract static class Cell {
+
+        final long bucket;
+
+        Cell(long bucket) {
+            this.bucket = bucket;
+        }
+
+        abstract Number sum();
+
+    }
+
+}
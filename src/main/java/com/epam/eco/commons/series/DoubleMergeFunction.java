@@ -0,0 +1,53 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Specialization of {@link MergeFunction} for primitive {@code double} values,
+ * which merges without boxing when used by {@link DoubleTimeSeries}.
+ *
+ * @author Andrei_Tytsik
+ */
+@FunctionalInterface
+public interface DoubleMergeFunction extends MergeFunction<Double>, DoubleBinaryOperator {
+
+    @Override
+    double applyAsDouble(double oldValue, double newValue);
+
+    @Override
+    default Double apply(Double oldValue, Double newValue) {
+        return applyAsDouble(oldValue, newValue);
+    }
+
+    static DoubleMergeFunction replace() {
+        return MergeFunctions.REPLACE_DOUBLE;
+    }
+
+    static DoubleMergeFunction add() {
+        return MergeFunctions.ADD_DOUBLE;
+    }
+
+    static DoubleMergeFunction min() {
+        return MergeFunctions.MIN_DOUBLE;
+    }
+
+    static DoubleMergeFunction max() {
+        return MergeFunctions.MAX_DOUBLE;
+    }
+
+}
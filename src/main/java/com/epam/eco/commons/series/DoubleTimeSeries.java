@@ -0,0 +1,286 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalUnit;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.DoubleBinaryOperator;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Counterpart of {@link TimeSeries} for primitive {@code double} values. Bucket
+ * indexes and values are kept in preallocated ring arrays, so neither keys nor
+ * values are boxed on append.
+ *
+ * @author Andrei_Tytsik
+ */
+public class DoubleTimeSeries extends AbstractTimeSeries implements Iterable<Map.Entry<LocalDateTime, Double>> {
+
+    private final DoubleBinaryOperator mergeFunction;
+    private final DoubleBucketRing ring;
+
+    public DoubleTimeSeries() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY);
+    }
+
+    public DoubleTimeSeries(TemporalUnit granularity) {
+        this(DEFAULT_MAX_SIZE, granularity);
+    }
+
+    public DoubleTimeSeries(int maxSize) {
+        this(maxSize, DEFAULT_GRANULARITY);
+    }
+
+    public DoubleTimeSeries(DoubleBinaryOperator mergeFunction) {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY, mergeFunction);
+    }
+
+    public DoubleTimeSeries(int maxSize, TemporalUnit granularity) {
+        this(maxSize, granularity, defaultMergeFunction());
+    }
+
+    public DoubleTimeSeries(TemporalUnit granularity, DoubleBinaryOperator mergeFunction) {
+        this(DEFAULT_MAX_SIZE, granularity, mergeFunction);
+    }
+
+    public DoubleTimeSeries(int maxSize, DoubleBinaryOperator mergeFunction) {
+        this(maxSize, DEFAULT_GRANULARITY, mergeFunction);
+    }
+
+    public DoubleTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            DoubleBinaryOperator mergeFunction) {
+        this(maxSize, granularity, mergeFunction, defaultClock());
+    }
+
+    public DoubleTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            DoubleBinaryOperator mergeFunction,
+            Clock clock) {
+        super(true, maxSize, granularity, clock);
+
+        Validate.notNull(mergeFunction, "MergeFunction is null");
+
+        this.mergeFunction = mergeFunction;
+        this.ring = new DoubleBucketRing(maxSize);
+    }
+
+    private DoubleTimeSeries(boolean modifiable, DoubleTimeSeries source) {
+        super(modifiable, source.maxSize, source.getGranularity(), source.clock);
+
+        this.mergeFunction = source.mergeFunction;
+        this.ring = new DoubleBucketRing(source.ring);
+    }
+
+    private DoubleTimeSeries(DoubleTimeSeries source, int fromIndex, int toIndex) {
+        super(false, source.maxSize, source.getGranularity(), source.clock);
+
+        this.mergeFunction = source.mergeFunction;
+        this.ring = new DoubleBucketRing(source.maxSize);
+        for (int i = fromIndex; i < toIndex; i++) {
+            int slot = ring.addLast(source.ring.bucket(i));
+            ring.values[slot] = source.ring.value(i);
+        }
+    }
+
+    public void append(double value) {
+        validateModifiable();
+
+        appendToBucket(currentBucket(), value);
+    }
+
+    public void append(long date, double value) {
+        validateModifiable();
+
+        appendToBucket(bucketOf(date), value);
+    }
+
+    public void append(LocalDateTime date, double value) {
+        validateModifiable();
+
+        Validate.notNull(date, "Date is null");
+
+        appendToBucket(indexer.index(date), value);
+    }
+
+    /**
+     * Appends the values at the given epoch millis, which have to be ordered.
+     * The batch is validated up front, buckets which wouldn't survive it are
+     * evicted once and values of the same bucket are merged in a tight loop.
+     */
+    public void appendAll(long[] dates, double[] values) {
+        validateModifiable();
+
+        Validate.notNull(dates, "Dates is null");
+        Validate.notNull(values, "Values is null");
+        Validate.isTrue(dates.length == values.length, "Dates and values are of different length");
+
+        long[] buckets = bucketsOf(dates);
+        int i = prepareAppendAll(buckets);
+        while (i < buckets.length) {
+            long bucket = buckets[i];
+            int slot = -1;
+            double value = values[i++];
+            if (!ring.isEmpty() && ring.lastBucket() == bucket) {
+                slot = ring.slot(ring.size() - 1);
+                value = mergeFunction.applyAsDouble(ring.values[slot], value);
+            }
+            while (i < buckets.length && buckets[i] == bucket) {
+                value = mergeFunction.applyAsDouble(value, values[i++]);
+            }
+            if (slot < 0) {
+                slot = ring.addLast(bucket);
+            }
+            ring.values[slot] = value;
+        }
+    }
+
+    public Map<LocalDateTime, Double> toMap() {
+        Map<LocalDateTime, Double> map = new LinkedHashMap<>((int) (ring.size() / 0.75f) + 1);
+        for (int i = 0; i < ring.size(); i++) {
+            map.put(resolveKey(i), ring.value(i));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    public DoubleTimeSeries copy() {
+        return new DoubleTimeSeries(modifiable, this);
+    }
+
+    public DoubleTimeSeries unmodifiableCopy() {
+        return new DoubleTimeSeries(false, this);
+    }
+
+    public DoubleTimeSeries subSeries(LocalDateTime fromDate, LocalDateTime toDate) {
+        Validate.notNull(fromDate, "From date is null");
+        Validate.notNull(toDate, "To date is null");
+
+        int fromIndex = ceilingIndexOf(fromDate);
+        return new DoubleTimeSeries(this, fromIndex, Math.max(fromIndex, ceilingIndexOf(toDate)));
+    }
+
+    public DoubleTimeSeries headSeries(LocalDateTime toDate) {
+        Validate.notNull(toDate, "To date is null");
+
+        return new DoubleTimeSeries(this, 0, ceilingIndexOf(toDate));
+    }
+
+    public DoubleTimeSeries tailSeries(LocalDateTime fromDate) {
+        Validate.notNull(fromDate, "From date is null");
+
+        return new DoubleTimeSeries(this, ceilingIndexOf(fromDate), ring.size());
+    }
+
+    @Override
+    public Iterator<Entry<LocalDateTime, Double>> iterator() {
+        return new Iterator<>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < ring.size();
+            }
+
+            @Override
+            public Entry<LocalDateTime, Double> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<LocalDateTime, Double> entry =
+                        new AbstractMap.SimpleImmutableEntry<>(resolveKey(index), ring.value(index));
+                index++;
+                return entry;
+            }
+
+        };
+    }
+
+    public double valueAt(int index) {
+        Objects.checkIndex(index, ring.size());
+
+        return ring.value(index);
+    }
+
+    public OptionalDouble value(LocalDateTime date) {
+        return resolveValue(indexOf(date));
+    }
+
+    public OptionalDouble lastValue() {
+        return resolveValue(ring.size() - 1);
+    }
+
+    public OptionalDouble firstValue() {
+        return resolveValue(ring.isEmpty() ? -1 : 0);
+    }
+
+    public OptionalDouble previousValue(LocalDateTime date) {
+        return resolveValue(previousIndexOf(date));
+    }
+
+    public OptionalDouble nextValue(LocalDateTime date) {
+        return resolveValue(nextIndexOf(date));
+    }
+
+    public OptionalDouble previousSerialValue(LocalDateTime date) {
+        return resolveValue(previousSerialIndexOf(date));
+    }
+
+    public OptionalDouble nextSerialValue(LocalDateTime date) {
+        return resolveValue(nextSerialIndexOf(date));
+    }
+
+    void appendToBucket(long bucket, double value) {
+        if (prepareAppend(bucket)) {
+            int slot = ring.slot(ring.size() - 1);
+            ring.values[slot] = mergeFunction.applyAsDouble(ring.values[slot], value);
+        } else {
+            int slot = ring.addLast(bucket);
+            ring.values[slot] = value;
+        }
+    }
+
+    @Override
+    DoubleBucketRing ring() {
+        return ring;
+    }
+
+    private OptionalDouble resolveValue(int index) {
+        return index >= 0 ? OptionalDouble.of(ring.value(index)) : OptionalDouble.empty();
+    }
+
+    private static Clock defaultClock() {
+        return Clock.systemDefaultZone();
+    }
+
+    private static DoubleBinaryOperator defaultMergeFunction() {
+        return DoubleMergeFunction.replace();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalUnit;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Unit of an arbitrary fixed duration, e.g. 15 seconds or 5 minutes, to be
+ * used as a granularity of series. Unlike the {@link java.time.temporal.ChronoUnit}s,
+ * which are bucketed as by {@link java.time.LocalDateTime#truncatedTo(TemporalUnit)},
+ * buckets of a duration unit are aligned to the epoch: bucket {@code n} starts
+ * at {@code 1970-01-01T00:00 + n * duration}. So the duration isn't required to
+ * divide a day.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class DurationUnit implements TemporalUnit {
+
+    private final Duration duration;
+
+    private DurationUnit(Duration duration) {
+        this.duration = duration;
+    }
+
+    public static DurationUnit of(Duration duration) {
+        Validate.notNull(duration, "Duration is null");
+        Validate.isTrue(!duration.isNegative() && !duration.isZero(), "Duration is invalid");
+
+        return new DurationUnit(duration);
+    }
+
+    public static DurationUnit ofSeconds(long seconds) {
+        return of(Duration.ofSeconds(seconds));
+    }
+
+    public static DurationUnit ofMinutes(long minutes) {
+        return of(Duration.ofMinutes(minutes));
+    }
+
+    public static DurationUnit ofHours(long hours) {
+        return of(Duration.ofHours(hours));
+    }
+
+    @Override
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public boolean isDurationEstimated() {
+        return false;
+    }
+
+    @Override
+    public boolean isDateBased() {
+        return false;
+    }
+
+    @Override
+    public boolean isTimeBased() {
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R extends Temporal> R addTo(R temporal, long amount) {
+        return (R) temporal.plus(duration.multipliedBy(amount));
+    }
+
+    @Override
+    public long between(Temporal temporal1Inclusive, Temporal temporal2Exclusive) {
+        return Duration.between(temporal1Inclusive, temporal2Exclusive).dividedBy(duration);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DurationUnit that = (DurationUnit) o;
+        return duration.equals(that.duration);
+    }
+
+    @Override
+    public int hashCode() {
+        return duration.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return duration.toString();
+    }
+
+}
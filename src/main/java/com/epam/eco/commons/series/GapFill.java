@@ -0,0 +1,61 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+/**
+ * Strategy of filling a bucket missing in a series, see
+ * {@link TimeSeries#serialIterator(GapFill)}. A gap is the run of missing
+ * buckets between two present ones: the previous one at position {@code 0}
+ * and the next one at position {@code length}; the filled bucket is at
+ * {@code 0 < position < length}.
+ *
+ * @author Andrei_Tytsik
+ */
+@FunctionalInterface
+public interface GapFill<V> {
+
+    V fill(V previous, V next, long position, long length);
+
+    /**
+     * Leaves the gaps as {@code null}s.
+     */
+    static <V> GapFill<V> empty() {
+        return (previous, next, position, length) -> null;
+    }
+
+    /**
+     * Fills the gaps with the value, e.g. zero.
+     */
+    static <V> GapFill<V> constant(V value) {
+        return (previous, next, position, length) -> value;
+    }
+
+    /**
+     * Carries the previous value forward.
+     */
+    static <V> GapFill<V> previous() {
+        return (previous, next, position, length) -> previous;
+    }
+
+    /**
+     * Interpolates linearly between the previous and the next values.
+     */
+    static GapFill<Double> linear() {
+        return (previous, next, position, length) ->
+                previous + (next - previous) * position / length;
+    }
+
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Mergeable sketch of the number of distinct values, after the HyperLogLog
+ * paper. It keeps {@code 2^precision} one-byte registers, so its footprint is
+ * fixed regardless of the number of values, and its standard error is about
+ * {@code 1.04 / sqrt(2^precision)}, e.g. 1.6% for the default precision. Small
+ * cardinalities are estimated by linear counting.
+ * <p>
+ * Values are hashed to 64 bits; values of other types may be added by their
+ * own 64-bit hashes, see {@link #addHash(long)}. Sketches of the same
+ * precision are merged in place, see {@link MergeFunction#hyperLogLog()}, so
+ * buckets of a series, or of several series, can be combined.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        Validate.isTrue(precision >= 4 && precision <= 18, "Precision is invalid");
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(HyperLogLog source) {
+        this.precision = source.precision;
+        this.registers = source.registers.clone();
+    }
+
+    public HyperLogLog add(long value) {
+        return addHash(mix(value));
+    }
+
+    public HyperLogLog add(CharSequence value) {
+        Validate.notNull(value, "Value is null");
+
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return addHash(mix(hash));
+    }
+
+    /**
+     * Adds a value by its hash, which is expected to be uniformly distributed
+     * over 64 bits.
+     */
+    public HyperLogLog addHash(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // the marker bit bounds the rank when the remaining bits are zero
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+        return this;
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        Validate.notNull(other, "Sketch is null");
+        Validate.isTrue(precision == other.precision, "Sketches are of different precision");
+
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(this);
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Finalization mix of MurmurHash3, which spreads every input bit over the
+     * whole hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog{" +
+                "precision=" + precision +
+                ", estimate=" + estimate() +
+                '}';
+    }
+
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+/**
+ * Tells which keys a join of series keeps, see {@link TimeSeriesJoins}.
+ *
+ * @author Andrei_Tytsik
+ */
+public enum JoinType {
+
+    /**
+     * Keys present in all series.
+     */
+    INNER,
+
+    /**
+     * Keys present in any series; values missing in the other series are
+     * gaps, passed as {@code null}.
+     */
+    OUTER
+
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+/**
+ * Tells what a series does with a value that arrives later than its allowed
+ * lateness.
+ *
+ * @author Andrei_Tytsik
+ */
+public enum LatePolicy {
+
+    /**
+     * The value is rejected with {@link IllegalArgumentException}.
+     */
+    REJECT,
+
+    /**
+     * The value is silently dropped and counted.
+     */
+    DROP
+
+}
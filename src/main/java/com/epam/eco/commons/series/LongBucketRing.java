@@ -0,0 +1,58 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+/**
+ * @author Andrei_Tytsik
+ */
+final class LongBucketRing extends BucketRing {
+
+    long[] values;
+
+    public LongBucketRing(int capacity) {
+        super(capacity);
+
+        this.values = new long[length()];
+    }
+
+    public LongBucketRing(LongBucketRing source) {
+        super(source);
+
+        this.values = source.values.clone();
+    }
+
+    public long value(int index) {
+        return values[slot(index)];
+    }
+
+    @Override
+    protected void resizeValues(int length) {
+        long[] resized = new long[length];
+        copyInOrder(values, resized);
+        values = resized;
+    }
+
+    @Override
+    protected void clearValue(int slot) {
+        values[slot] = 0;
+    }
+
+    @Override
+    protected void moveValue(int fromSlot, int toSlot) {
+        values[toSlot] = values[fromSlot];
+    }
+
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Specialization of {@link MergeFunction} for primitive {@code long} values,
+ * which merges without boxing when used by {@link LongTimeSeries}.
+ *
+ * @author Andrei_Tytsik
+ */
+@FunctionalInterface
+public interface LongMergeFunction extends MergeFunction<Long>, LongBinaryOperator {
+
+    @Override
+    long applyAsLong(long oldValue, long newValue);
+
+    @Override
+    default Long apply(Long oldValue, Long newValue) {
+        return applyAsLong(oldValue, newValue);
+    }
+
+    static LongMergeFunction replace() {
+        return MergeFunctions.REPLACE_LONG;
+    }
+
+    static LongMergeFunction add() {
+        return MergeFunctions.ADD_LONG;
+    }
+
+    static LongMergeFunction min() {
+        return MergeFunctions.MIN_LONG;
+    }
+
+    static LongMergeFunction max() {
+        return MergeFunctions.MAX_LONG;
+    }
+
+}
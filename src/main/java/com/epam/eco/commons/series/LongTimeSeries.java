@@ -0,0 +1,286 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalUnit;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.LongBinaryOperator;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Counterpart of {@link TimeSeries} for primitive {@code long} values. Bucket
+ * indexes and values are kept in preallocated ring arrays, so neither keys nor
+ * values are boxed on append.
+ *
+ * @author Andrei_Tytsik
+ */
+public class LongTimeSeries extends AbstractTimeSeries implements Iterable<Map.Entry<LocalDateTime, Long>> {
+
+    private final LongBinaryOperator mergeFunction;
+    private final LongBucketRing ring;
+
+    public LongTimeSeries() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY);
+    }
+
+    public LongTimeSeries(TemporalUnit granularity) {
+        this(DEFAULT_MAX_SIZE, granularity);
+    }
+
+    public LongTimeSeries(int maxSize) {
+        this(maxSize, DEFAULT_GRANULARITY);
+    }
+
+    public LongTimeSeries(LongBinaryOperator mergeFunction) {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY, mergeFunction);
+    }
+
+    public LongTimeSeries(int maxSize, TemporalUnit granularity) {
+        this(maxSize, granularity, defaultMergeFunction());
+    }
+
+    public LongTimeSeries(TemporalUnit granularity, LongBinaryOperator mergeFunction) {
+        this(DEFAULT_MAX_SIZE, granularity, mergeFunction);
+    }
+
+    public LongTimeSeries(int maxSize, LongBinaryOperator mergeFunction) {
+        this(maxSize, DEFAULT_GRANULARITY, mergeFunction);
+    }
+
+    public LongTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            LongBinaryOperator mergeFunction) {
+        this(maxSize, granularity, mergeFunction, defaultClock());
+    }
+
+    public LongTimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            LongBinaryOperator mergeFunction,
+            Clock clock) {
+        super(true, maxSize, granularity, clock);
+
+        Validate.notNull(mergeFunction, "MergeFunction is null");
+
+        this.mergeFunction = mergeFunction;
+        this.ring = new LongBucketRing(maxSize);
+    }
+
+    private LongTimeSeries(boolean modifiable, LongTimeSeries source) {
+        super(modifiable, source.maxSize, source.getGranularity(), source.clock);
+
+        this.mergeFunction = source.mergeFunction;
+        this.ring = new LongBucketRing(source.ring);
+    }
+
+    private LongTimeSeries(LongTimeSeries source, int fromIndex, int toIndex) {
+        super(false, source.maxSize, source.getGranularity(), source.clock);
+
+        this.mergeFunction = source.mergeFunction;
+        this.ring = new LongBucketRing(source.maxSize);
+        for (int i = fromIndex; i < toIndex; i++) {
+            int slot = ring.addLast(source.ring.bucket(i));
+            ring.values[slot] = source.ring.value(i);
+        }
+    }
+
+    public void append(long value) {
+        validateModifiable();
+
+        appendToBucket(currentBucket(), value);
+    }
+
+    public void append(long date, long value) {
+        validateModifiable();
+
+        appendToBucket(bucketOf(date), value);
+    }
+
+    public void append(LocalDateTime date, long value) {
+        validateModifiable();
+
+        Validate.notNull(date, "Date is null");
+
+        appendToBucket(indexer.index(date), value);
+    }
+
+    /**
+     * Appends the values at the given epoch millis, which have to be ordered.
+     * The batch is validated up front, buckets which wouldn't survive it are
+     * evicted once and values of the same bucket are merged in a tight loop.
+     */
+    public void appendAll(long[] dates, long[] values) {
+        validateModifiable();
+
+        Validate.notNull(dates, "Dates is null");
+        Validate.notNull(values, "Values is null");
+        Validate.isTrue(dates.length == values.length, "Dates and values are of different length");
+
+        long[] buckets = bucketsOf(dates);
+        int i = prepareAppendAll(buckets);
+        while (i < buckets.length) {
+            long bucket = buckets[i];
+            int slot = -1;
+            long value = values[i++];
+            if (!ring.isEmpty() && ring.lastBucket() == bucket) {
+                slot = ring.slot(ring.size() - 1);
+                value = mergeFunction.applyAsLong(ring.values[slot], value);
+            }
+            while (i < buckets.length && buckets[i] == bucket) {
+                value = mergeFunction.applyAsLong(value, values[i++]);
+            }
+            if (slot < 0) {
+                slot = ring.addLast(bucket);
+            }
+            ring.values[slot] = value;
+        }
+    }
+
+    public Map<LocalDateTime, Long> toMap() {
+        Map<LocalDateTime, Long> map = new LinkedHashMap<>((int) (ring.size() / 0.75f) + 1);
+        for (int i = 0; i < ring.size(); i++) {
+            map.put(resolveKey(i), ring.value(i));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    public LongTimeSeries copy() {
+        return new LongTimeSeries(modifiable, this);
+    }
+
+    public LongTimeSeries unmodifiableCopy() {
+        return new LongTimeSeries(false, this);
+    }
+
+    public LongTimeSeries subSeries(LocalDateTime fromDate, LocalDateTime toDate) {
+        Validate.notNull(fromDate, "From date is null");
+        Validate.notNull(toDate, "To date is null");
+
+        int fromIndex = ceilingIndexOf(fromDate);
+        return new LongTimeSeries(this, fromIndex, Math.max(fromIndex, ceilingIndexOf(toDate)));
+    }
+
+    public LongTimeSeries headSeries(LocalDateTime toDate) {
+        Validate.notNull(toDate, "To date is null");
+
+        return new LongTimeSeries(this, 0, ceilingIndexOf(toDate));
+    }
+
+    public LongTimeSeries tailSeries(LocalDateTime fromDate) {
+        Validate.notNull(fromDate, "From date is null");
+
+        return new LongTimeSeries(this, ceilingIndexOf(fromDate), ring.size());
+    }
+
+    @Override
+    public Iterator<Entry<LocalDateTime, Long>> iterator() {
+        return new Iterator<>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < ring.size();
+            }
+
+            @Override
+            public Entry<LocalDateTime, Long> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<LocalDateTime, Long> entry =
+                        new AbstractMap.SimpleImmutableEntry<>(resolveKey(index), ring.value(index));
+                index++;
+                return entry;
+            }
+
+        };
+    }
+
+    public long valueAt(int index) {
+        Objects.checkIndex(index, ring.size());
+
+        return ring.value(index);
+    }
+
+    public OptionalLong value(LocalDateTime date) {
+        return resolveValue(indexOf(date));
+    }
+
+    public OptionalLong lastValue() {
+        return resolveValue(ring.size() - 1);
+    }
+
+    public OptionalLong firstValue() {
+        return resolveValue(ring.isEmpty() ? -1 : 0);
+    }
+
+    public OptionalLong previousValue(LocalDateTime date) {
+        return resolveValue(previousIndexOf(date));
+    }
+
+    public OptionalLong nextValue(LocalDateTime date) {
+        return resolveValue(nextIndexOf(date));
+    }
+
+    public OptionalLong previousSerialValue(LocalDateTime date) {
+        return resolveValue(previousSerialIndexOf(date));
+    }
+
+    public OptionalLong nextSerialValue(LocalDateTime date) {
+        return resolveValue(nextSerialIndexOf(date));
+    }
+
+    void appendToBucket(long bucket, long value) {
+        if (prepareAppend(bucket)) {
+            int slot = ring.slot(ring.size() - 1);
+            ring.values[slot] = mergeFunction.applyAsLong(ring.values[slot], value);
+        } else {
+            int slot = ring.addLast(bucket);
+            ring.values[slot] = value;
+        }
+    }
+
+    @Override
+    LongBucketRing ring() {
+        return ring;
+    }
+
+    private OptionalLong resolveValue(int index) {
+        return index >= 0 ? OptionalLong.of(ring.value(index)) : OptionalLong.empty();
+    }
+
+    private static Clock defaultClock() {
+        return Clock.systemDefaultZone();
+    }
+
+    private static LongBinaryOperator defaultMergeFunction() {
+        return LongMergeFunction.replace();
+    }
+
+}
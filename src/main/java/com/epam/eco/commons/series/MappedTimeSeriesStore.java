@@ -0,0 +1,425 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Append-only, file-backed store of raw series points. Points are written as
+ * fixed-size records ({@code epochMilli}, value, checksum) into memory-mapped
+ * segment files of the directory; a new segment is started once the current one
+ * is full. Range reads go straight to the mappings, so the store keeps long
+ * histories off-heap, and {@link #load(LongTimeSeries, long, long)} rebuilds a
+ * heap series from it.
+ * <p>
+ * Points have to be appended in non-decreasing order of their timestamps. A
+ * full segment is flushed to the storage device before the next one is
+ * started, so on open the full segments are trusted after checking their last
+ * record, and only the last segment is scanned up to the first record that
+ * fails its checksum (e.g. one torn by a crash); everything after it is
+ * discarded. Written data is handed over to the OS right away, call
+ * {@link #force()} to also flush it to the storage device.
+ * <p>
+ * Values are stored as raw 64 bits: longs as is, doubles as their IEEE 754
+ * bits. The store isn't thread-safe.
+ *
+ * @author Andrei_Tytsik
+ */
+public class MappedTimeSeriesStore implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_CAPACITY = 64 * 1024;
+
+    static final int RECORD_SIZE = 3 * Long.BYTES;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long CHECKSUM_SEED = 0x5EB1E5C0FFEE1234L;
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final List<Segment> segments = new ArrayList<>();
+
+    private long size;
+    private boolean closed;
+
+    public MappedTimeSeriesStore(Path directory) {
+        this(directory, DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    public MappedTimeSeriesStore(Path directory, int segmentCapacity) {
+        Validate.notNull(directory, "Directory is null");
+        Validate.isTrue(
+                segmentCapacity > 0 && segmentCapacity <= Integer.MAX_VALUE / RECORD_SIZE,
+                "Segment capacity is invalid");
+
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    public void append(long epochMilli, double value) {
+        append(epochMilli, Double.doubleToRawLongBits(value));
+    }
+
+    public void append(long epochMilli, long value) {
+        validateOpen();
+
+        Segment last = lastSegment();
+        if (last != null && epochMilli < last.lastEpochMilli()) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Date %d is lower than last store's date %d",
+                            epochMilli, last.lastEpochMilli()));
+        }
+
+        if (last == null || last.isFull()) {
+            if (last != null) {
+                last.buffer.force();
+            }
+            last = createSegment(last != null ? last.sequence + 1 : 0);
+        }
+        last.write(epochMilli, value);
+        size++;
+    }
+
+    /**
+     * Passes points with {@code fromEpochMilli <= epochMilli < toEpochMilli} to
+     * the consumer, in the order they were appended.
+     */
+    public void forEach(long fromEpochMilli, long toEpochMilli, PointConsumer consumer) {
+        Validate.notNull(consumer, "Consumer is null");
+        validateOpen();
+
+        for (int s = firstSegmentOf(fromEpochMilli); s < segments.size(); s++) {
+            Segment segment = segments.get(s);
+            for (int i = segment.ceilingIndexOf(fromEpochMilli); i < segment.count; i++) {
+                long epochMilli = segment.epochMilli(i);
+                if (epochMilli >= toEpochMilli) {
+                    return;
+                }
+                consumer.accept(epochMilli, segment.value(i));
+            }
+        }
+    }
+
+    public void forEach(PointConsumer consumer) {
+        forEach(Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Appends points in the range to the series, see
+     * {@link #forEach(long, long, PointConsumer)}.
+     */
+    public void load(LongTimeSeries series, long fromEpochMilli, long toEpochMilli) {
+        Validate.notNull(series, "Series is null");
+
+        forEach(fromEpochMilli, toEpochMilli, series::append);
+    }
+
+    /**
+     * Appends points in the range to the series, see
+     * {@link #forEach(long, long, PointConsumer)}.
+     */
+    public void load(DoubleTimeSeries series, long fromEpochMilli, long toEpochMilli) {
+        Validate.notNull(series, "Series is null");
+
+        forEach(
+                fromEpochMilli,
+                toEpochMilli,
+                (epochMilli, value) -> series.append(epochMilli, Double.longBitsToDouble(value)));
+    }
+
+    /**
+     * Deletes whole segments all points of which are older than the given
+     * timestamp. Returns the number of points removed.
+     */
+    public long truncateBefore(long epochMilli) {
+        validateOpen();
+
+        long removed = 0;
+        while (segments.size() > 1 && segments.get(0).lastEpochMilli() < epochMilli) {
+            Segment segment = segments.remove(0);
+            removed += segment.count;
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    public void force() {
+        validateOpen();
+
+        Segment last = lastSegment();
+        if (last != null) {
+            last.buffer.force();
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long firstEpochMilli() {
+        validateNotEmpty();
+        return segments.get(0).epochMilli(0);
+    }
+
+    public long lastEpochMilli() {
+        validateNotEmpty();
+        return lastSegment().lastEpochMilli();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentCapacity() {
+        return segmentCapacity;
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.forEach(Segment::close);
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+
+        long lastEpochMilli = Long.MIN_VALUE;
+        for (int p = 0; p < paths.size(); p++) {
+            Segment segment = openSegment(paths.get(p));
+            boolean sealed = p < paths.size() - 1 && segment.isSealed(lastEpochMilli);
+            segment.count = sealed ? segment.capacity : segment.scan(lastEpochMilli);
+            if (segment.count == 0) {
+                segment.close();
+                break;
+            }
+            segments.add(segment);
+            size += segment.count;
+            lastEpochMilli = segment.lastEpochMilli();
+            if (segment.count < segment.capacity) {
+                segment.clearTail();
+                break;
+            }
+        }
+
+        // segments after a torn or empty one can't be trusted
+        for (Path path : paths) {
+            if (segments.stream().noneMatch(segment -> segment.path.equals(path))) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private Segment createSegment(long sequence) {
+        Path path = directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+        try {
+            Segment segment = openSegment(path);
+            segments.add(segment);
+            return segment;
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    private Segment openSegment(Path path) throws IOException {
+        Path name = path.getFileName();
+        if (name == null) {
+            throw new IllegalArgumentException("Segment path has no file name: " + path);
+        }
+        String fileName = name.toString();
+        long sequence = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long length = channel.size() > 0 ? channel.size() : (long) segmentCapacity * RECORD_SIZE;
+            MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, length);
+            return new Segment(path, sequence, buffer, (int) (length / RECORD_SIZE));
+        }
+    }
+
+    private int firstSegmentOf(long epochMilli) {
+        int low = 0;
+        int high = segments.size() - 1;
+        int result = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).epochMilli(0) < epochMilli) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private Segment lastSegment() {
+        return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    }
+
+    private void validateOpen() {
+        if (closed) {
+            throw new IllegalStateException("Store is closed");
+        }
+    }
+
+    private void validateNotEmpty() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Store is empty");
+        }
+    }
+
+    private static long checksum(long epochMilli, long value) {
+        long hash = epochMilli * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(value, 31) * 0xC2B2AE3D27D4EB4FL;
+        return hash ^ (hash >>> 29) ^ CHECKSUM_SEED;
+    }
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long epochMilli, long value);
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final int capacity;
+        private MappedByteBuffer buffer;
+        private int count;
+
+        private Segment(Path path, long sequence, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.sequence = sequence;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        private int scan(long lastEpochMilli) {
+            for (int i = 0; i < capacity; i++) {
+                long epochMilli = epochMilli(i);
+                if (!isValid(i) || epochMilli < lastEpochMilli) {
+                    return i;
+                }
+                lastEpochMilli = epochMilli;
+            }
+            return capacity;
+        }
+
+        /**
+         * Checks that the segment was filled up, by its first and last records
+         * only, without scanning it.
+         */
+        private boolean isSealed(long lastEpochMilli) {
+            return isValid(0) && epochMilli(0) >= lastEpochMilli && isValid(capacity - 1);
+        }
+
+        private boolean isValid(int index) {
+            return buffer.getLong(index * RECORD_SIZE + 2 * Long.BYTES) == checksum(epochMilli(index), value(index));
+        }
+
+        private void clearTail() {
+            for (int offset = count * RECORD_SIZE; offset < capacity * RECORD_SIZE; offset += Long.BYTES) {
+                buffer.putLong(offset, 0);
+            }
+        }
+
+        private void write(long epochMilli, long value) {
+            int offset = count * RECORD_SIZE;
+            buffer.putLong(offset, epochMilli);
+            buffer.putLong(offset + Long.BYTES, value);
+            buffer.putLong(offset + 2 * Long.BYTES, checksum(epochMilli, value));
+            count++;
+        }
+
+        private boolean isFull() {
+            return count == capacity;
+        }
+
+        private long epochMilli(int index) {
+            return buffer.getLong(index * RECORD_SIZE);
+        }
+
+        private long value(int index) {
+            return buffer.getLong(index * RECORD_SIZE + Long.BYTES);
+        }
+
+        private long lastEpochMilli() {
+            return epochMilli(count - 1);
+        }
+
+        private int ceilingIndexOf(long epochMilli) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochMilli(mid) < epochMilli) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void close() {
+            buffer = null;
+        }
+
+    }
+
+}
@@ -18,29 +18,88 @@ package com.epam.eco.commons.series;
 import java.util.function.BiFunction;
 
 /**
+ * Merges the new value of a bucket into its old value. A function may merge
+ * in place, i.e. modify the old value and return it, as the ones for
+ * {@link Stats} and sketches do; such a function overrides {@link #copy(Object)}.
+ * <p>
+ * So the old value must be owned by the caller: a series owns the values
+ * appended to it and copies a value shared with a copy of the series before
+ * merging into it, and whoever merges values of other series merges them into
+ * copies.
+ *
  * @author Andrei_Tytsik
  */
 @FunctionalInterface
 public interface MergeFunction<V> extends BiFunction<V, V, V> {
 
+    /**
+     * Returns a copy of the value which can be merged into without affecting
+     * the original, or the value itself if the function doesn't modify its
+     * arguments.
+     */
+    default V copy(V value) {
+        return value;
+    }
+
     static <V> MergeFunction<V> replace() {
         return (oldValue, newValue) -> newValue;
     }
 
     static MergeFunction<Integer> addInt() {
-        return Integer::sum;
+        return MergeFunctions.ADD_INT;
     }
 
     static MergeFunction<Long> addLong() {
-        return Long::sum;
+        return MergeFunctions.ADD_LONG;
     }
 
     static MergeFunction<Float> addFloat() {
-        return Float::sum;
+        return MergeFunctions.ADD_FLOAT;
     }
 
     static MergeFunction<Double> addDouble() {
-        return Double::sum;
+        return MergeFunctions.ADD_DOUBLE;
+    }
+
+    static <V extends Comparable<? super V>> MergeFunction<V> min() {
+        return (oldValue, newValue) -> oldValue.compareTo(newValue) <= 0 ? oldValue : newValue;
+    }
+
+    static <V extends Comparable<? super V>> MergeFunction<V> max() {
+        return (oldValue, newValue) -> oldValue.compareTo(newValue) >= 0 ? oldValue : newValue;
+    }
+
+    /**
+     * Returns the function that merges {@link Stats} in place, i.e. the old
+     * value absorbs the new one.
+     */
+    static MergeFunction<Stats> stats() {
+        return MergeFunctions.STATS;
+    }
+
+    /**
+     * Returns the function that merges {@link QuantileSketch}es in place, i.e.
+     * the old value absorbs the new one.
+     */
+    static MergeFunction<QuantileSketch> quantileSketch() {
+        return MergeFunctions.QUANTILE_SKETCH;
+    }
+
+    /**
+     * Returns the function that merges {@link HyperLogLog}s in place, i.e. the
+     * old value absorbs the new one.
+     */
+    static MergeFunction<HyperLogLog> hyperLogLog() {
+        return MergeFunctions.HYPER_LOG_LOG;
+    }
+
+    /**
+     * Returns the function that merges {@link TopKSketch}es in place, i.e. the
+     * old value absorbs the new one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> MergeFunction<TopKSketch<T>> topKSketch() {
+        return (MergeFunction) MergeFunctions.TOP_K_SKETCH;
     }
 
 }
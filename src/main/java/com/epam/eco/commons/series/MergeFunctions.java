@@ -0,0 +1,66 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shared instances of the built-in merge functions, so that the factory
+ * methods of {@link MergeFunction} and its primitive specializations don't
+ * allocate.
+ *
+ * @author Andrei_Tytsik
+ */
+final class MergeFunctions {
+
+    static final MergeFunction<Integer> ADD_INT = Integer::sum;
+    static final LongMergeFunction ADD_LONG = Long::sum;
+    static final MergeFunction<Float> ADD_FLOAT = Float::sum;
+    static final DoubleMergeFunction ADD_DOUBLE = Double::sum;
+
+    static final LongMergeFunction REPLACE_LONG = (oldValue, newValue) -> newValue;
+    static final LongMergeFunction MIN_LONG = Math::min;
+    static final LongMergeFunction MAX_LONG = Math::max;
+
+    static final DoubleMergeFunction REPLACE_DOUBLE = (oldValue, newValue) -> newValue;
+    static final DoubleMergeFunction MIN_DOUBLE = Math::min;
+    static final DoubleMergeFunction MAX_DOUBLE = Math::max;
+
+    static final MergeFunction<Stats> STATS = inPlace(Stats::merge, Stats::copy);
+    static final MergeFunction<QuantileSketch> QUANTILE_SKETCH =
+            inPlace(QuantileSketch::merge, QuantileSketch::copy);
+    static final MergeFunction<HyperLogLog> HYPER_LOG_LOG = inPlace(HyperLogLog::merge, HyperLogLog::copy);
+    static final MergeFunction<TopKSketch<Object>> TOP_K_SKETCH = inPlace(TopKSketch::merge, TopKSketch::copy);
+
+    private MergeFunctions() {
+    }
+
+    private static <V> MergeFunction<V> inPlace(BinaryOperator<V> merge, UnaryOperator<V> copy) {
+        return new MergeFunction<V>() {
+            @Override
+            public V apply(V oldValue, V newValue) {
+                return merge.apply(oldValue, newValue);
+            }
+
+            @Override
+            public V copy(V value) {
+                return copy.apply(value);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+/**
+ * @author Andrei_Tytsik
+ */
+final class ObjectBucketRing<V> extends BucketRing {
+
+    Object[] values;
+    private boolean[] borrowed;
+
+    public ObjectBucketRing(int capacity) {
+        super(capacity);
+
+        this.values = new Object[length()];
+    }
+
+    /**
+     * Creates a copy whose values are borrowed from the source, see
+     * {@link #isBorrowed(int)}.
+     */
+    public ObjectBucketRing(ObjectBucketRing<V> source) {
+        super(source);
+
+        this.values = source.values.clone();
+        this.borrowed = new boolean[values.length];
+        for (int i = 0; i < size(); i++) {
+            borrowed[slot(i)] = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V value(int index) {
+        return (V) values[slot(index)];
+    }
+
+    public void setValue(int slot, V value) {
+        values[slot] = value;
+        if (borrowed != null) {
+            borrowed[slot] = false;
+        }
+    }
+
+    /**
+     * Tells whether the value at the index is shared with the ring this one
+     * was copied from, i.e. whether it must be copied before merging into it.
+     */
+    public boolean isBorrowed(int index) {
+        return borrowed != null && borrowed[slot(index)];
+    }
+
+    @Override
+    protected void resizeValues(int length) {
+        Object[] resized = new Object[length];
+        copyInOrder(values, resized);
+        values = resized;
+        if (borrowed != null) {
+            boolean[] resizedBorrowed = new boolean[length];
+            copyInOrder(borrowed, resizedBorrowed);
+            borrowed = resizedBorrowed;
+        }
+    }
+
+    @Override
+    protected void clearValue(int slot) {
+        values[slot] = null;
+        if (borrowed != null) {
+            borrowed[slot] = false;
+        }
+    }
+
+    @Override
+    protected void moveValue(int fromSlot, int toSlot) {
+        values[toSlot] = values[fromSlot];
+        if (borrowed != null) {
+            borrowed[toSlot] = borrowed[fromSlot];
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Mergeable sketch of the distribution of non-negative {@code long} values
+ * (e.g. latencies), for quantile queries. Values are counted in log-linear
+ * buckets after HDR histogram: values below {@code 2^precisionBits} are
+ * counted exactly, and larger ones with a relative error of at most
+ * {@code 2^-(precisionBits-1)}. The counts array is sized at construction by
+ * the highest trackable value, so recording doesn't allocate; larger values
+ * are counted as the highest trackable one.
+ * <p>
+ * Sketches of the same configuration are merged in place, see
+ * {@link MergeFunction#quantileSketch()}, so buckets of a series can be
+ * combined for window queries. Bucket counts are {@code int}s, which keeps
+ * sketches compact; exceeding them fails with {@link ArithmeticException}.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class QuantileSketch {
+
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final long highestValue;
+    private final int precisionBits;
+    private final int halfSubBucketCount;
+    private final int[] counts;
+
+    private long count;
+    private double sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private int lowestIndex = Integer.MAX_VALUE;
+    private int highestIndex = -1;
+
+    public QuantileSketch(long highestValue) {
+        this(highestValue, DEFAULT_PRECISION_BITS);
+    }
+
+    public QuantileSketch(long highestValue, int precisionBits) {
+        Validate.isTrue(highestValue > 0, "Highest value is invalid");
+        Validate.isTrue(precisionBits >= 1 && precisionBits <= 16, "Precision bits are invalid");
+
+        this.highestValue = highestValue;
+        this.precisionBits = precisionBits;
+        this.halfSubBucketCount = 1 << (precisionBits - 1);
+        this.counts = new int[indexOf(highestValue) + 1];
+    }
+
+    private QuantileSketch(QuantileSketch source) {
+        this.highestValue = source.highestValue;
+        this.precisionBits = source.precisionBits;
+        this.halfSubBucketCount = source.halfSubBucketCount;
+        this.counts = source.counts.clone();
+        this.count = source.count;
+        this.sum = source.sum;
+        this.min = source.min;
+        this.max = source.max;
+        this.lowestIndex = source.lowestIndex;
+        this.highestIndex = source.highestIndex;
+    }
+
+    public QuantileSketch record(long value) {
+        return record(value, 1);
+    }
+
+    public QuantileSketch record(long value, int times) {
+        Validate.isTrue(value >= 0, "Value is negative");
+        Validate.isTrue(times >= 0, "Times is negative");
+
+        if (times == 0) {
+            return this;
+        }
+
+        value = Math.min(value, highestValue);
+        int index = indexOf(value);
+        counts[index] = Math.addExact(counts[index], times);
+        lowestIndex = Math.min(lowestIndex, index);
+        highestIndex = Math.max(highestIndex, index);
+        count += times;
+        sum += (double) value * times;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        return this;
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        Validate.notNull(other, "Sketch is null");
+        Validate.isTrue(
+                highestValue == other.highestValue && precisionBits == other.precisionBits,
+                "Sketches are of different configuration");
+
+        for (int i = other.lowestIndex; i <= other.highestIndex; i++) {
+            counts[i] = Math.addExact(counts[i], other.counts[i]);
+        }
+        if (other.count > 0) {
+            lowestIndex = Math.min(lowestIndex, other.lowestIndex);
+            highestIndex = Math.max(highestIndex, other.highestIndex);
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        return this;
+    }
+
+    public QuantileSketch copy() {
+        return new QuantileSketch(this);
+    }
+
+    /**
+     * Returns the value at the given quantile, {@code 0 <= quantile <= 1}, i.e.
+     * the highest value equivalent to the one of that rank. The result is
+     * within {@link #getMin()} and {@link #getMax()}, and is {@code 0} if there
+     * are no values.
+     */
+    public long quantile(double quantile) {
+        Validate.isTrue(quantile >= 0 && quantile <= 1, "Quantile is invalid");
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = lowestIndex; i <= highestIndex; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, highestEquivalentValue(i)));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the min value, or {@code 0} if there are no values.
+     */
+    public long getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    /**
+     * Returns the max value, or {@code 0} if there are no values.
+     */
+    public long getMax() {
+        return count > 0 ? max : 0;
+    }
+
+    /**
+     * Returns the mean value, or {@code NaN} if there are no values.
+     */
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    public long getHighestValue() {
+        return highestValue;
+    }
+
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    private int indexOf(long value) {
+        int subBucketCount = halfSubBucketCount << 1;
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - precisionBits;
+        return subBucketCount
+                + (shift - 1) * halfSubBucketCount
+                + (int) (value >>> shift) - halfSubBucketCount;
+    }
+
+    private long highestEquivalentValue(int index) {
+        int subBucketCount = halfSubBucketCount << 1;
+        if (index < subBucketCount) {
+            return index;
+        }
+        int shift = (index - subBucketCount) / halfSubBucketCount + 1;
+        long mantissa = (index - subBucketCount) % halfSubBucketCount + halfSubBucketCount;
+        long lowest = mantissa << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{" +
+                "count=" + count +
+                ", min=" + getMin() +
+                ", p50=" + quantile(0.5) +
+                ", p99=" + quantile(0.99) +
+                ", max=" + getMax() +
+                '}';
+    }
+
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Series of per-second rates of a monotonic counter. Raw counter samples are
+ * appended, and the increase since the previous sample, together with the time
+ * elapsed since it, is added to the bucket of the sample. The rate of a bucket
+ * is its increase over its elapsed time, so reads don't need to difference the
+ * counter.
+ * <p>
+ * A sample lower than the previous one is taken as a counter reset: the
+ * counter is assumed to have restarted from zero, so the increase is the
+ * sample itself.
+ *
+ * @author Andrei_Tytsik
+ */
+public class RateTimeSeries {
+
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final TemporalUnit DEFAULT_GRANULARITY = ChronoUnit.MINUTES;
+
+    private final DoubleTimeSeries increases;
+    private final DoubleTimeSeries elapsed;
+    private final Clock clock;
+
+    private boolean started;
+    private long lastDate;
+    private double lastCounter;
+    private long resetCount;
+
+    public RateTimeSeries() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY);
+    }
+
+    public RateTimeSeries(int maxSize, TemporalUnit granularity) {
+        this(maxSize, granularity, Clock.systemDefaultZone());
+    }
+
+    public RateTimeSeries(int maxSize, TemporalUnit granularity, Clock clock) {
+        this.increases = new DoubleTimeSeries(maxSize, granularity, DoubleMergeFunction.add(), clock);
+        this.elapsed = new DoubleTimeSeries(maxSize, granularity, DoubleMergeFunction.add(), clock);
+        this.clock = clock;
+    }
+
+    public void append(double counter) {
+        append(clock.millis(), counter);
+    }
+
+    public void append(LocalDateTime date, double counter) {
+        Validate.notNull(date, "Date is null");
+
+        append(date.atZone(clock.getZone()).toInstant().toEpochMilli(), counter);
+    }
+
+    /**
+     * Appends the counter sampled at the given epoch millis.
+     */
+    public void append(long date, double counter) {
+        Validate.isTrue(!Double.isNaN(counter), "Counter is NaN");
+
+        if (!started) {
+            started = true;
+            lastDate = date;
+            lastCounter = counter;
+            return;
+        }
+
+        if (date < lastDate) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Date %d is lower than last sample's date %d",
+                            date, lastDate));
+        }
+
+        double increase = counter - lastCounter;
+        if (increase < 0) {
+            increase = counter;
+            resetCount++;
+        }
+        increases.append(date, increase);
+        elapsed.append(date, (date - lastDate) / 1000d);
+
+        lastDate = date;
+        lastCounter = counter;
+    }
+
+    public int size() {
+        return increases.size();
+    }
+
+    public TemporalUnit getGranularity() {
+        return increases.getGranularity();
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public int getMaxSize() {
+        return increases.maxSize;
+    }
+
+    /**
+     * Returns the number of counter resets detected so far.
+     */
+    public long getResetCount() {
+        return resetCount;
+    }
+
+    public OptionalDouble lastCounter() {
+        return started ? OptionalDouble.of(lastCounter) : OptionalDouble.empty();
+    }
+
+    public LocalDateTime keyAt(int index) {
+        return increases.keyAt(index);
+    }
+
+    public LocalDateTime lastKey() {
+        return increases.lastKey();
+    }
+
+    public LocalDateTime firstKey() {
+        return increases.firstKey();
+    }
+
+    /**
+     * Returns the per-second rate of the bucket at the index, {@code NaN} if no
+     * time has elapsed within it.
+     */
+    public double rateAt(int index) {
+        return rate(increases.valueAt(index), elapsed.valueAt(index));
+    }
+
+    public OptionalDouble rate(LocalDateTime date) {
+        OptionalDouble increase = increases.value(date);
+        if (increase.isEmpty()) {
+            return increase;
+        }
+        return toOptional(rate(increase.getAsDouble(), elapsed.value(date).getAsDouble()));
+    }
+
+    public OptionalDouble lastRate() {
+        return increases.size() > 0 ? toOptional(rateAt(increases.size() - 1)) : OptionalDouble.empty();
+    }
+
+    public OptionalDouble increase(LocalDateTime date) {
+        return increases.value(date);
+    }
+
+    public Map<LocalDateTime, Double> toMap() {
+        Map<LocalDateTime, Double> map = new LinkedHashMap<>((int) (size() / 0.75f) + 1);
+        for (int i = 0; i < size(); i++) {
+            map.put(keyAt(i), rateAt(i));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static double rate(double increase, double seconds) {
+        return seconds > 0 ? increase / seconds : Double.NaN;
+    }
+
+    private static OptionalDouble toOptional(double rate) {
+        return Double.isNaN(rate) ? OptionalDouble.empty() : OptionalDouble.of(rate);
+    }
+
+}
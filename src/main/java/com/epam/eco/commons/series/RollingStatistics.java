@@ -0,0 +1,232 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.util.Map.Entry;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Count, sum, average, min and max over the last {@code windowSize} buckets of
+ * a {@link TimeSeries}, maintained incrementally as values are appended to and
+ * evicted from the series. Min and max are kept in monotonic deques of the
+ * closed buckets, the last (still changing) bucket is accounted separately,
+ * so every read is constant time regardless of the window size.
+ * <p>
+ * Like {@link TimeSeries}, the class isn't thread-safe.
+ *
+ * @author Andrei_Tytsik
+ */
+public class RollingStatistics<V> implements TimeSeriesListener<V> {
+
+    private final TimeSeries<V> series;
+    private final int windowSize;
+    private final ToDoubleFunction<? super V> valueFunction;
+
+    private final LocalDateTime[] keys;
+    private final double[] values;
+    private long firstSeq;
+    private long nextSeq;
+    private double sum;
+
+    private final SeqDeque minDeque;
+    private final SeqDeque maxDeque;
+
+    public RollingStatistics(
+            TimeSeries<V> series,
+            int windowSize,
+            ToDoubleFunction<? super V> valueFunction) {
+        Validate.notNull(series, "Series is null");
+        Validate.isTrue(windowSize > 0, "Window size is invalid");
+        Validate.notNull(valueFunction, "Value function is null");
+
+        this.series = series;
+        this.windowSize = windowSize;
+        this.valueFunction = valueFunction;
+        this.keys = new LocalDateTime[windowSize];
+        this.values = new double[windowSize];
+        this.minDeque = new SeqDeque(windowSize);
+        this.maxDeque = new SeqDeque(windowSize);
+
+        reset();
+        series.addListener(this);
+    }
+
+    public void detach() {
+        series.removeListener(this);
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int count() {
+        return (int) (nextSeq - firstSeq);
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    public double average() {
+        return count() > 0 ? sum / count() : Double.NaN;
+    }
+
+    public double min() {
+        if (count() == 0) {
+            return Double.NaN;
+        }
+        double last = values[slot(nextSeq - 1)];
+        return minDeque.isEmpty() ? last : Math.min(values[slot(minDeque.first())], last);
+    }
+
+    public double max() {
+        if (count() == 0) {
+            return Double.NaN;
+        }
+        double last = values[slot(nextSeq - 1)];
+        return maxDeque.isEmpty() ? last : Math.max(values[slot(maxDeque.first())], last);
+    }
+
+    @Override
+    public void onAppended(LocalDateTime key, V oldValue, V newValue) {
+        if (newValue == null) {
+            // the bucket is removed, so an older one may get into the window
+            if (count() > 0 && !key.isBefore(keys[slot(firstSeq)])) {
+                reset();
+            }
+            return;
+        }
+
+        LocalDateTime lastKey = count() > 0 ? keys[slot(nextSeq - 1)] : null;
+        if (lastKey != null && lastKey.equals(key)) {
+            int slot = slot(nextSeq - 1);
+            double value = valueFunction.applyAsDouble(newValue);
+            sum += value - values[slot];
+            values[slot] = value;
+        } else if (lastKey == null || key.isAfter(lastKey)) {
+            add(key, valueFunction.applyAsDouble(newValue));
+        } else {
+            reset();
+        }
+    }
+
+    @Override
+    public void onEvicted(LocalDateTime key, V value) {
+        if (count() > 0 && keys[slot(firstSeq)].equals(key)) {
+            removeFirst();
+        }
+    }
+
+    private void add(LocalDateTime key, double value) {
+        if (count() > 0) {
+            long closedSeq = nextSeq - 1;
+            double closedValue = values[slot(closedSeq)];
+            while (!minDeque.isEmpty() && values[slot(minDeque.last())] >= closedValue) {
+                minDeque.removeLast();
+            }
+            minDeque.addLast(closedSeq);
+            while (!maxDeque.isEmpty() && values[slot(maxDeque.last())] <= closedValue) {
+                maxDeque.removeLast();
+            }
+            maxDeque.addLast(closedSeq);
+        }
+        if (count() == windowSize) {
+            removeFirst();
+        }
+
+        int slot = slot(nextSeq++);
+        keys[slot] = key;
+        values[slot] = value;
+        sum += value;
+    }
+
+    private void removeFirst() {
+        int slot = slot(firstSeq);
+        sum -= values[slot];
+        keys[slot] = null;
+        if (!minDeque.isEmpty() && minDeque.first() == firstSeq) {
+            minDeque.removeFirst();
+        }
+        if (!maxDeque.isEmpty() && maxDeque.first() == firstSeq) {
+            maxDeque.removeFirst();
+        }
+        firstSeq++;
+        if (firstSeq == nextSeq) {
+            sum = 0;
+        }
+    }
+
+    private void reset() {
+        while (count() > 0) {
+            removeFirst();
+        }
+        sum = 0;
+
+        int skip = series.size() - windowSize;
+        for (Entry<LocalDateTime, V> entry : series) {
+            if (skip-- > 0) {
+                continue;
+            }
+            add(entry.getKey(), valueFunction.applyAsDouble(entry.getValue()));
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % windowSize);
+    }
+
+    private static final class SeqDeque {
+
+        private final long[] seqs;
+        private int head;
+        private int size;
+
+        private SeqDeque(int capacity) {
+            this.seqs = new long[capacity];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private long first() {
+            return seqs[head];
+        }
+
+        private long last() {
+            return seqs[(head + size - 1) % seqs.length];
+        }
+
+        private void addLast(long seq) {
+            seqs[(head + size) % seqs.length] = seq;
+            size++;
+        }
+
+        private void removeFirst() {
+            head = (head + 1) % seqs.length;
+            size--;
+        }
+
+        private void removeLast() {
+            size--;
+        }
+
+    }
+
+}
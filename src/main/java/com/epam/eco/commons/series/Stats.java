@@ -0,0 +1,124 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Mutable summary of the values of a bucket: count, sum, min, max and sum of
+ * squares, from which mean and variance are derived. Values are added and
+ * other stats merged in place, see {@link MergeFunction#stats()} and
+ * {@link TimeSeries#computeIfAbsent(java.time.LocalDateTime, java.util.function.Supplier)},
+ * so a series of stats answers several aggregate questions without
+ * allocating per value.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class Stats {
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sumOfSquares;
+
+    public Stats() {
+    }
+
+    public static Stats of(double value) {
+        return new Stats().add(value);
+    }
+
+    public Stats add(double value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sumOfSquares += value * value;
+        return this;
+    }
+
+    public Stats merge(Stats other) {
+        Validate.notNull(other, "Stats is null");
+
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sumOfSquares += other.sumOfSquares;
+        return this;
+    }
+
+    public Stats copy() {
+        return new Stats().merge(this);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the min value, or {@code NaN} if there are no values.
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Returns the max value, or {@code NaN} if there are no values.
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    /**
+     * Returns the mean value, or {@code NaN} if there are no values.
+     */
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /**
+     * Returns the population variance, or {@code NaN} if there are no values.
+     */
+    public double getVariance() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / count;
+        return Math.max(0, sumOfSquares / count - mean * mean);
+    }
+
+    @Override
+    public String toString() {
+        return "Stats{" +
+                "count=" + count +
+                ", sum=" + sum +
+                ", min=" + getMin() +
+                ", max=" + getMax() +
+                ", mean=" + getMean() +
+                '}';
+    }
+
+}
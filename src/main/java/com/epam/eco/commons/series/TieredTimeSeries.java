@@ -0,0 +1,138 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Chain of series of increasing granularity. Values are appended once to the
+ * finest tier; when a bucket is evicted from a tier it's folded into the next
+ * coarser one through that tier's {@link MergeFunction}. Each tier keeps its
+ * own retention, so a point lives in exactly one tier at any time.
+ * <p>
+ * The given tiers are owned by this series and shouldn't be modified directly.
+ * Like {@link TimeSeries}, the class isn't thread-safe.
+ *
+ * @author Andrei_Tytsik
+ */
+public class TieredTimeSeries<V> {
+
+    private final List<TimeSeries<V>> tiers;
+
+    public TieredTimeSeries(List<TimeSeries<V>> tiers) {
+        Validate.notEmpty(tiers, "Tiers are empty");
+        Validate.noNullElements(tiers, "Tiers contain null elements");
+
+        for (int i = 0; i < tiers.size(); i++) {
+            Validate.isTrue(tiers.get(i).size() == 0, "Tier %d isn't empty", i);
+            if (i > 0) {
+                long fine = tiers.get(i - 1).getGranularity().getDuration().toNanos();
+                long coarse = tiers.get(i).getGranularity().getDuration().toNanos();
+                Validate.isTrue(
+                        coarse > fine && coarse % fine == 0,
+                        "Granularity of tier %d isn't a multiple of the previous one", i);
+            }
+        }
+
+        this.tiers = Collections.unmodifiableList(new ArrayList<>(tiers));
+
+        for (int i = 0; i < this.tiers.size() - 1; i++) {
+            TimeSeries<V> coarser = this.tiers.get(i + 1);
+            this.tiers.get(i).addListener(new TimeSeriesListener<V>() {
+                @Override
+                public void onEvicted(LocalDateTime key, V value) {
+                    coarser.append(key, value);
+                }
+            });
+        }
+    }
+
+    public void append(V value) {
+        tiers.get(0).append(value);
+    }
+
+    public void append(long date, V value) {
+        tiers.get(0).append(date, value);
+    }
+
+    public void append(LocalDateTime date, V value) {
+        tiers.get(0).append(date, value);
+    }
+
+    public int getTierCount() {
+        return tiers.size();
+    }
+
+    /**
+     * Returns an unmodifiable copy of the tier, i.e. only the data that has
+     * aged out of the finer tiers.
+     */
+    public TimeSeries<V> tier(int index) {
+        return tiers.get(index).unmodifiableCopy();
+    }
+
+    /**
+     * Returns an unmodifiable series with the granularity of the tier, which
+     * has the data of all the finer tiers folded in.
+     */
+    public TimeSeries<V> rollup(int index) {
+        TimeSeries<V> rollup = tiers.get(index).copy();
+        for (int i = index - 1; i >= 0; i--) {
+            MergeFunction<V> mergeFunction = tiers.get(i).getMergeFunction();
+            for (Entry<LocalDateTime, V> entry : tiers.get(i)) {
+                // the rollup owns the values appended to it
+                rollup.append(entry.getKey(), mergeFunction.copy(entry.getValue()));
+            }
+        }
+        return rollup.unmodifiableCopy();
+    }
+
+    /**
+     * Returns the value of the bucket of the tier the date falls into, with
+     * the data of all the finer tiers folded in.
+     */
+    public V value(int index, LocalDateTime date) {
+        Validate.notNull(date, "Date is null");
+
+        TimeSeries<V> tier = tiers.get(index);
+        LocalDateTime fromDate = tier.toSerialKey(date, 0);
+        LocalDateTime toDate = tier.toSerialKey(date, 1);
+        MergeFunction<V> mergeFunction = tier.getMergeFunction();
+
+        // the values belong to the tiers, so they are merged into a copy
+        V value = tier.value(date);
+        value = value != null ? mergeFunction.copy(value) : null;
+        for (int i = index - 1; i >= 0; i--) {
+            for (Entry<LocalDateTime, V> entry : tiers.get(i).subSeries(fromDate, toDate)) {
+                value = value != null
+                        ? mergeFunction.apply(value, entry.getValue())
+                        : mergeFunction.copy(entry.getValue());
+            }
+        }
+        return value;
+    }
+
+    List<TimeSeries<V>> tiers() {
+        return tiers;
+    }
+
+}
@@ -15,17 +15,33 @@
  *******************************************************************************/
 package com.epam.eco.commons.series;
 
-import java.time.Instant;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TimeZone;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.apache.commons.collections4.map.LinkedMap;
 import org.apache.commons.lang3.Validate;
 
 /**
@@ -38,9 +54,21 @@ public class TimeSeries<V> implements Iterable<Map.Entry<LocalDateTime, V>> {
 
     private final boolean modifiable;
     private final int maxSize;
+    private final Duration maxAge;
+    private final Duration allowedLateness;
+    private final LatePolicy latePolicy;
     private final TemporalUnit granularity;
     private final MergeFunction<V> mergeFunction;
-    private final LinkedMap<LocalDateTime, V> data;
+    private final Clock clock;
+    private final BucketIndexer indexer;
+    private final ZoneOffsetCache offsets;
+    private final CoarseClock.Bucket currentBucket;
+    private final List<TimeSeriesListener<? super V>> listeners = new ArrayList<>();
+    private final Map<LocalDateTime, V> view = new DataView();
+    private ObjectBucketRing<V> ring;
+    private boolean shared;
+    private int modCount;
+    private long droppedCount;
 
     public TimeSeries() {
         this(DEFAULT_MAX_SIZE, DEFAULT_GRANULARITY);
@@ -74,36 +102,184 @@ public class TimeSeries<V> implements Iterable<Map.Entry<LocalDateTime, V>> {
             int maxSize,
             TemporalUnit granularity,
             MergeFunction<V> mergeFunction) {
-        this(true, maxSize, granularity, mergeFunction, Collections.emptyMap());
+        this(maxSize, granularity, mergeFunction, defaultClock());
+    }
+
+    public TimeSeries(
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock) {
+        this(maxSize, null, granularity, mergeFunction, clock);
+    }
+
+    /**
+     * Creates a series that, besides the max size, evicts the buckets which
+     * have become older than the max age according to the clock. Eviction is
+     * lazy and happens on append and read, or by a {@link TimeSeriesSweeper}.
+     */
+    public TimeSeries(
+            int maxSize,
+            Duration maxAge,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock) {
+        this(maxSize, maxAge, Duration.ZERO, LatePolicy.REJECT, granularity, mergeFunction, clock);
+    }
+
+    /**
+     * Creates a series that accepts values up to the allowed lateness behind
+     * its last key: they are merged into their own buckets, even if those are
+     * in the middle of the series. Values later than that are handled
+     * according to the late policy.
+     */
+    public TimeSeries(
+            int maxSize,
+            Duration maxAge,
+            Duration allowedLateness,
+            LatePolicy latePolicy,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock) {
+        this(
+                true,
+                maxSize,
+                maxAge,
+                allowedLateness,
+                latePolicy,
+                granularity,
+                mergeFunction,
+                clock,
+                Collections.emptyMap());
+    }
+
+    protected TimeSeries(
+            boolean modifiable,
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Map<LocalDateTime, V> data) {
+        this(modifiable, maxSize, granularity, mergeFunction, defaultClock(), data);
+    }
+
+    protected TimeSeries(
+            boolean modifiable,
+            int maxSize,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock,
+            Map<LocalDateTime, V> data) {
+        this(modifiable, maxSize, null, granularity, mergeFunction, clock, data);
+    }
+
+    protected TimeSeries(
+            boolean modifiable,
+            int maxSize,
+            Duration maxAge,
+            TemporalUnit granularity,
+            MergeFunction<V> mergeFunction,
+            Clock clock,
+            Map<LocalDateTime, V> data) {
+        this(
+                modifiable,
+                maxSize,
+                maxAge,
+                Duration.ZERO,
+                LatePolicy.REJECT,
+                granularity,
+                mergeFunction,
+                clock,
+                data);
     }
 
     protected TimeSeries(
             boolean modifiable,
             int maxSize,
+            Duration maxAge,
+            Duration allowedLateness,
+            LatePolicy latePolicy,
             TemporalUnit granularity,
             MergeFunction<V> mergeFunction,
+            Clock clock,
             Map<LocalDateTime, V> data) {
         Validate.isTrue(maxSize > 0, "Max size is invalid");
+        Validate.isTrue(
+                maxAge == null || (!maxAge.isNegative() && !maxAge.isZero()),
+                "Max age is invalid");
+        Validate.notNull(allowedLateness, "Allowed lateness is null");
+        Validate.isTrue(!allowedLateness.isNegative(), "Allowed lateness is invalid");
+        Validate.notNull(latePolicy, "Late policy is null");
         Validate.notNull(granularity, "Granularity is null");
         Validate.notNull(mergeFunction, "MergeFunction is null");
+        Validate.notNull(clock, "Clock is null");
 
         this.modifiable = modifiable;
         this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.allowedLateness = allowedLateness;
+        this.latePolicy = latePolicy;
         this.granularity = granularity;
         this.mergeFunction = mergeFunction;
-        this.data = new LinkedMap<>(data != null ? data : Collections.emptyMap());
+        this.clock = clock;
+        this.indexer = BucketIndexer.of(granularity);
+        this.offsets = ZoneOffsetCache.of(clock.getZone());
+        this.currentBucket = CoarseClock.bucketOf(clock, indexer);
+        this.ring = new ObjectBucketRing<>(ringCapacity(maxSize));
+        if (data != null) {
+            data.forEach(this::load);
+        }
+    }
+
+    private TimeSeries(
+            TimeSeries<V> source,
+            boolean modifiable,
+            ObjectBucketRing<V> ring,
+            boolean shared) {
+        this.modifiable = modifiable;
+        this.maxSize = source.maxSize;
+        this.maxAge = source.maxAge;
+        this.allowedLateness = source.allowedLateness;
+        this.latePolicy = source.latePolicy;
+        this.droppedCount = source.droppedCount;
+        this.granularity = source.granularity;
+        this.mergeFunction = source.mergeFunction;
+        this.clock = source.clock;
+        this.indexer = source.indexer;
+        this.offsets = source.offsets;
+        this.currentBucket = source.currentBucket;
+        this.ring = ring;
+        this.shared = shared;
     }
 
+    /**
+     * Appends the value at the current time of the series' clock. With a
+     * {@link CoarseClock}, the current bucket is read from the clock as is.
+     */
     public void append(V value) {
-        append(LocalDateTime.now(), value);
+        long bucket = currentBucket != null
+                ? currentBucket.get()
+                : indexer.indexOfLocalMillis(offsets.toLocalMillis(clock.millis()));
+        if (!mergeIntoLast(bucket, value)) {
+            append(indexer.key(bucket), value);
+        }
     }
 
+    /**
+     * Appends the value at the given epoch millis. The bucket is resolved by
+     * arithmetic against the zone of the series' clock, and values falling
+     * into the last bucket are merged without building a new key.
+     */
     public void append(long date, V value) {
-        append(
-                LocalDateTime.ofInstant(
-                        Instant.ofEpochMilli(date),
-                        TimeZone.getDefault().toZoneId()),
-                value);
+        long localMillis = offsets.toLocalMillis(date);
+        if (!mergeIntoLast(indexer.indexOfLocalMillis(localMillis), value)) {
+            // lateness is measured from the date itself, not from its bucket
+            append(
+                    LocalDateTime.ofEpochSecond(
+                            Math.floorDiv(localMillis, 1000L),
+                            (int) Math.floorMod(localMillis, 1000L) * 1_000_000,
+                            ZoneOffset.UTC),
+                    value);
+        }
     }
 
     public void append(LocalDateTime date, V value) {
@@ -114,141 +290,775 @@ public class TimeSeries<V> implements Iterable<Map.Entry<LocalDateTime, V>> {
         Validate.notNull(date, "Date is null");
         Validate.notNull(value, "Value is null");
 
-        LocalDateTime lastDate = lastKey();
-        if (lastDate != null && date.isBefore(lastDate)) {
-            throw new IllegalArgumentException(
-                    String.format(
-                            "Date %s is lower than last timeseries' date %s",
-                            date, lastDate));
+        expire();
+
+        long bucket = indexer.index(date);
+        if (!ring.isEmpty() && bucket < ring.lastBucket()) {
+            LocalDateTime lastDate = indexer.key(ring.lastBucket());
+            if (date.isBefore(lastDate.minus(allowedLateness))) {
+                if (latePolicy == LatePolicy.DROP) {
+                    droppedCount++;
+                    return;
+                }
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Date %s is lower than last timeseries' date %s",
+                                date, lastDate));
+            }
         }
 
-        date = toSerialKey(date);
-        data.merge(date, value, mergeFunction);
+        merge(bucket, value);
 
-        if (data.size() > maxSize) {
-            data.remove(data.firstKey());
+        if (ring.size() > maxSize) {
+            evictFirst();
         }
     }
 
+    /**
+     * Returns the value of the bucket of the date, appending the one from the
+     * supplier first if there is no value yet. Meant for mutable values, such
+     * as {@link Stats}, which are then updated in place: such updates aren't
+     * seen by listeners, and are seen by copies taken before unless the merge
+     * function copies values, see {@link MergeFunction#copy(Object)}.
+     * <p>
+     * Returns {@code null} if the appended value was dropped or evicted right
+     * away, see {@link LatePolicy}.
+     */
+    public V computeIfAbsent(LocalDateTime date, Supplier<? extends V> supplier) {
+        if (!modifiable) {
+            throw new UnsupportedOperationException();
+        }
+
+        Validate.notNull(date, "Date is null");
+        Validate.notNull(supplier, "Supplier is null");
+
+        expire();
+        ensureExclusive();
+
+        long bucket = indexer.index(date);
+        int index = ring.indexOf(bucket);
+        if (index >= 0) {
+            // the value is updated in place by the caller
+            return ownedValue(index);
+        }
+
+        append(date, supplier.get());
+        index = ring.indexOf(bucket);
+        return index >= 0 ? ring.value(index) : null;
+    }
+
+    /**
+     * Appends the entries, which are expected to be ordered by date. Values of
+     * the same bucket are merged with each other before they are put to the
+     * series, so listeners are notified once per bucket. Entries lower than
+     * the last key are handled as by {@link #append(LocalDateTime, Object)}.
+     */
+    public void appendAll(Iterator<? extends Entry<LocalDateTime, ? extends V>> entries) {
+        if (!modifiable) {
+            throw new UnsupportedOperationException();
+        }
+
+        Validate.notNull(entries, "Entries is null");
+
+        expire();
+        ensureExclusive();
+
+        boolean pending = false;
+        long bucket = 0;
+        V value = null;
+        V oldValue = null;
+        while (entries.hasNext()) {
+            Entry<LocalDateTime, ? extends V> entry = entries.next();
+            Validate.notNull(entry.getKey(), "Date is null");
+            Validate.notNull(entry.getValue(), "Value is null");
+
+            long entryBucket = indexer.index(entry.getKey());
+            if (pending && entryBucket == bucket) {
+                value = mergeFunction.apply(value, entry.getValue());
+                continue;
+            }
+            if (pending) {
+                putLast(bucket, oldValue, value);
+                pending = false;
+            }
+
+            if (!ring.isEmpty() && entryBucket < ring.lastBucket()) {
+                append(entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            pending = true;
+            bucket = entryBucket;
+            oldValue = !ring.isEmpty() && entryBucket == ring.lastBucket() ? ownedValue(ring.size() - 1) : null;
+            value = oldValue != null ? mergeFunction.apply(oldValue, entry.getValue()) : entry.getValue();
+        }
+        if (pending) {
+            putLast(bucket, oldValue, value);
+        }
+    }
+
+    /**
+     * Evicts the buckets which have become older than the max age, i.e. ended
+     * before {@code now - maxAge}. Returns the number of evicted buckets, which
+     * is always {@code 0} for series without max age and unmodifiable ones.
+     */
+    public int evictExpired() {
+        if (maxAge == null || !modifiable || ring.isEmpty()) {
+            return 0;
+        }
+
+        long cutoffBucket = indexer.indexOfLocalMillis(
+                offsets.toLocalMillis(clock.millis() - maxAge.toMillis()));
+        int evicted = 0;
+        while (!ring.isEmpty() && ring.firstBucket() < cutoffBucket) {
+            evictFirst();
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Registers the listener to be notified of the values appended to and
+     * evicted from this series. Listeners aren't carried over to copies.
+     */
+    public void addListener(TimeSeriesListener<? super V> listener) {
+        Validate.notNull(listener, "Listener is null");
+
+        listeners.add(listener);
+    }
+
+    public void removeListener(TimeSeriesListener<? super V> listener) {
+        listeners.remove(listener);
+    }
+
     public int size() {
-        return data.size();
+        expire();
+
+        return ring.size();
     }
 
     public TemporalUnit getGranularity() {
         return granularity;
     }
 
+    public Clock getClock() {
+        return clock;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public MergeFunction<V> getMergeFunction() {
+        return mergeFunction;
+    }
+
+    public Duration getAllowedLateness() {
+        return allowedLateness;
+    }
+
+    public LatePolicy getLatePolicy() {
+        return latePolicy;
+    }
+
+    /**
+     * Returns the number of values dropped for being later than the allowed
+     * lateness, see {@link LatePolicy#DROP}.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
     public Map<LocalDateTime, V> toMap() {
-        return Collections.unmodifiableMap(data);
+        expire();
+
+        return view;
     }
 
+    /**
+     * Returns a copy of this series. The copy shares the data with this series
+     * until either of them is modified, so taking it is constant time.
+     */
     public TimeSeries<V> copy() {
-        return new TimeSeries<>(modifiable, maxSize, granularity, mergeFunction, data);
+        expire();
+
+        return share(modifiable);
     }
 
+    /**
+     * Returns an unmodifiable copy of this series, see {@link #copy()}.
+     */
     public TimeSeries<V> unmodifiableCopy() {
-        return new TimeSeries<>(false, maxSize, granularity, mergeFunction, data);
+        expire();
+
+        return share(false);
     }
 
     @Override
     public Iterator<Entry<LocalDateTime, V>> iterator() {
+        expire();
+
         return toMap().entrySet().iterator();
     }
 
-    public LocalDateTime key(LocalDateTime date) {
-        Validate.notNull(date, "Date is null");
+    /**
+     * Returns a sized spliterator over a snapshot of the buckets: the data is
+     * shared with the spliterator as with a {@link #copy()}, so the series may
+     * be modified while the spliterator is traversed.
+     */
+    @Override
+    public Spliterator<Entry<LocalDateTime, V>> spliterator() {
+        expire();
+
+        shared = true;
+        return new RingSpliterator(ring, 0, ring.size());
+    }
+
+    public Stream<Entry<LocalDateTime, V>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<Entry<LocalDateTime, V>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns an iterator over every serial bucket from the first key to the
+     * last one, the missing buckets being filled by the gap fill as they are
+     * reached. Like {@link #spliterator()}, it's over a snapshot of the data.
+     */
+    public Iterator<Entry<LocalDateTime, V>> serialIterator(GapFill<V> gapFill) {
+        Validate.notNull(gapFill, "Gap fill is null");
+
+        expire();
+
+        shared = true;
+        return new SerialIterator(ring, gapFill);
+    }
+
+    /**
+     * Returns a sequential stream over every serial bucket, see
+     * {@link #serialIterator(GapFill)}.
+     */
+    public Stream<Entry<LocalDateTime, V>> serialStream(GapFill<V> gapFill) {
+        Iterator<Entry<LocalDateTime, V>> iterator = serialIterator(gapFill);
+        long size = ring.isEmpty() ? 0 : ring.lastBucket() - ring.firstBucket() + 1;
+        return StreamSupport.stream(
+                Spliterators.spliterator(
+                        iterator,
+                        size,
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Returns an unmodifiable series with the buckets whose keys are within
+     * {@code [fromDate, toDate)}. The range is resolved by bucket arithmetic,
+     * so the cost depends on the size of the range rather than the series.
+     */
+    public TimeSeries<V> subSeries(LocalDateTime fromDate, LocalDateTime toDate) {
+        Validate.notNull(fromDate, "From date is null");
+        Validate.notNull(toDate, "To date is null");
+
+        return range(ceilingBucket(fromDate), ceilingBucket(toDate));
+    }
+
+    public TimeSeries<V> headSeries(LocalDateTime toDate) {
+        Validate.notNull(toDate, "To date is null");
 
-        date = toSerialKey(date);
-        return data.containsKey(date) ? date : null;
+        return range(Long.MIN_VALUE, ceilingBucket(toDate));
+    }
+
+    public TimeSeries<V> tailSeries(LocalDateTime fromDate) {
+        Validate.notNull(fromDate, "From date is null");
+
+        return range(ceilingBucket(fromDate), Long.MAX_VALUE);
+    }
+
+    public LocalDateTime keyAt(int index) {
+        expire();
+
+        Objects.checkIndex(index, ring.size());
+
+        return indexer.key(ring.bucket(index));
+    }
+
+    public V valueAt(int index) {
+        expire();
+
+        Objects.checkIndex(index, ring.size());
+
+        return ring.value(index);
+    }
+
+    public LocalDateTime key(LocalDateTime date) {
+        return resolveKey(indexOf(date, 0));
     }
 
     public LocalDateTime lastKey() {
-        return data.size() > 0 ? data.lastKey() : null;
+        expire();
+
+        return resolveKey(ring.size() - 1);
     }
 
     public LocalDateTime firstKey() {
-        return data.size() > 0 ? data.firstKey() : null;
+        expire();
+
+        return resolveKey(ring.isEmpty() ? -1 : 0);
     }
 
     public LocalDateTime previousKey(LocalDateTime date) {
-        Validate.notNull(date, "Date is null");
-
-        date = toSerialKey(date);
-        return data.previousKey(date);
+        return resolveKey(previousIndexOf(date));
     }
 
     public LocalDateTime nextKey(LocalDateTime date) {
-        Validate.notNull(date, "Date is null");
-
-        date = toSerialKey(date);
-        return data.nextKey(date);
+        return resolveKey(nextIndexOf(date));
     }
 
     public LocalDateTime previousSerialKey(LocalDateTime date) {
-        Validate.notNull(date, "Date is null");
-
-        date = toSerialKey(date, -1);
-        return data.containsKey(date) ? date : null;
+        return resolveKey(indexOf(date, -1));
     }
 
     public LocalDateTime nextSerialKey(LocalDateTime date) {
-        Validate.notNull(date, "Date is null");
-
-        date = toSerialKey(date, 1);
-        return data.containsKey(date) ? date : null;
+        return resolveKey(indexOf(date, 1));
     }
 
     public V value(LocalDateTime date) {
-        Validate.notNull(date, "Date is null");
-
-        date = toSerialKey(date);
-        return data.get(date);
+        return resolveValue(indexOf(date, 0));
     }
 
     public V lastValue() {
-        LocalDateTime date = lastKey();
-        return date != null ? data.get(date) : null;
+        expire();
+
+        return resolveValue(ring.size() - 1);
     }
 
     public V firstValue() {
-        LocalDateTime date = firstKey();
-        return date != null ? data.get(date) : null;
+        expire();
+
+        return resolveValue(ring.isEmpty() ? -1 : 0);
     }
 
     public V previousValue(LocalDateTime date) {
-        date = previousKey(date);
-        return date != null ? data.get(date) : null;
+        return resolveValue(previousIndexOf(date));
     }
 
     public V nextValue(LocalDateTime date) {
-        date = nextKey(date);
-        return date != null ? data.get(date) : null;
+        return resolveValue(nextIndexOf(date));
     }
 
     public V previousSerialValue(LocalDateTime date) {
-        date = previousSerialKey(date);
-        return date != null ? data.get(date) : null;
+        return resolveValue(indexOf(date, -1));
     }
 
     public V nextSerialValue(LocalDateTime date) {
-        date = nextSerialKey(date);
-        return date != null ? data.get(date) : null;
+        return resolveValue(indexOf(date, 1));
+    }
+
+    private int indexOf(LocalDateTime date, long offset) {
+        expire();
+
+        Validate.notNull(date, "Date is null");
+
+        return ring.indexOf(indexer.index(date) + offset);
+    }
+
+    private int previousIndexOf(LocalDateTime date) {
+        int index = indexOf(date, 0);
+        return index > 0 ? index - 1 : -1;
+    }
+
+    private int nextIndexOf(LocalDateTime date) {
+        int index = indexOf(date, 0);
+        return index >= 0 && index < ring.size() - 1 ? index + 1 : -1;
+    }
+
+    private LocalDateTime resolveKey(int index) {
+        return index >= 0 ? indexer.key(ring.bucket(index)) : null;
+    }
+
+    private V resolveValue(int index) {
+        return index >= 0 ? ring.value(index) : null;
+    }
+
+    private TimeSeries<V> share(boolean modifiable) {
+        shared = true;
+        return new TimeSeries<>(this, modifiable, ring, true);
+    }
+
+    private void ensureExclusive() {
+        if (shared) {
+            // the values are borrowed and copied once merged into, see ownedValue
+            ring = new ObjectBucketRing<>(ring);
+            shared = false;
+        }
+    }
+
+    /**
+     * Returns the value at the index which can be merged into in place,
+     * copying it first if it's shared with a copy of this series.
+     */
+    private V ownedValue(int index) {
+        V value = ring.value(index);
+        if (ring.isBorrowed(index)) {
+            value = mergeFunction.copy(value);
+            ring.setValue(ring.slot(index), value);
+        }
+        return value;
+    }
+
+    private boolean mergeIntoLast(long bucket, V value) {
+        expire();
+
+        if (modifiable && value != null && !ring.isEmpty() && bucket == ring.lastBucket()) {
+            merge(bucket, value);
+            return true;
+        }
+        return false;
+    }
+
+    private void load(LocalDateTime date, V value) {
+        if (date == null || value == null) {
+            return;
+        }
+
+        long bucket = indexer.index(date);
+        int index = ring.indexOf(bucket);
+        if (index >= 0) {
+            // the value of the bucket came from the data as well
+            ring.setValue(ring.slot(index), mergeFunction.apply(mergeFunction.copy(ring.value(index)), value));
+        } else {
+            int slot = ring.insert(-index - 1, bucket);
+            ring.setValue(slot, value);
+        }
+    }
+
+    private void merge(long bucket, V value) {
+        ensureExclusive();
+
+        int index = ring.indexOf(bucket);
+        V oldValue = null;
+        V newValue = value;
+        if (index >= 0) {
+            oldValue = ownedValue(index);
+            newValue = mergeFunction.apply(oldValue, value);
+            if (newValue == null) {
+                ring.remove(index);
+                modCount++;
+            } else {
+                ring.setValue(ring.slot(index), newValue);
+            }
+        } else {
+            index = -index - 1;
+            int slot = index == ring.size() ? ring.addLast(bucket) : ring.insert(index, bucket);
+            ring.setValue(slot, value);
+            modCount++;
+        }
+
+        fireAppended(bucket, oldValue, newValue);
     }
 
-    private LocalDateTime toSerialKey(LocalDateTime date) {
-        return toSerialKey(date, 0);
+    private void putLast(long bucket, V oldValue, V newValue) {
+        ensureExclusive();
+
+        if (oldValue != null) {
+            if (newValue == null) {
+                ring.remove(ring.size() - 1);
+                modCount++;
+            } else {
+                ring.setValue(ring.slot(ring.size() - 1), newValue);
+            }
+        } else {
+            int slot = ring.addLast(bucket);
+            ring.setValue(slot, newValue);
+            modCount++;
+        }
+
+        fireAppended(bucket, oldValue, newValue);
+
+        if (ring.size() > maxSize) {
+            evictFirst();
+        }
     }
 
-    private LocalDateTime toSerialKey(LocalDateTime date, long offset) {
-        date = date.truncatedTo(granularity);
-        if (offset != 0) {
-            date = date.plus(offset, granularity);
+    private void fireAppended(long bucket, V oldValue, V newValue) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime key = indexer.key(bucket);
+        for (TimeSeriesListener<? super V> listener : listeners) {
+            listener.onAppended(key, oldValue, newValue);
         }
-        return date;
+    }
+
+    private void expire() {
+        if (maxAge != null) {
+            evictExpired();
+        }
+    }
+
+    private void evictFirst() {
+        ensureExclusive();
+
+        long bucket = ring.firstBucket();
+        V value = ring.value(0);
+        ring.removeFirst();
+        modCount++;
+        if (!listeners.isEmpty()) {
+            LocalDateTime key = indexer.key(bucket);
+            for (TimeSeriesListener<? super V> listener : listeners) {
+                listener.onEvicted(key, value);
+            }
+        }
+    }
+
+    LocalDateTime toSerialKey(LocalDateTime date, long offset) {
+        return indexer.key(indexer.index(date) + offset);
+    }
+
+    void appendToBucket(long bucket, V value) {
+        merge(bucket, value);
+
+        if (ring.size() > maxSize) {
+            evictFirst();
+        }
+    }
+
+    ObjectBucketRing<V> ring() {
+        expire();
+
+        return ring;
+    }
+
+    long granularityNanos() {
+        return indexer.getNanos();
+    }
+
+    private long ceilingBucket(LocalDateTime date) {
+        return indexer.index(date.minusNanos(1)) + 1;
+    }
+
+    private TimeSeries<V> range(long fromBucket, long toBucket) {
+        expire();
+
+        int fromIndex = ceilingIndexOf(fromBucket);
+        int toIndex = Math.max(fromIndex, ceilingIndexOf(toBucket));
+        ObjectBucketRing<V> range = new ObjectBucketRing<>(ringCapacity(maxSize));
+        for (int i = fromIndex; i < toIndex; i++) {
+            int slot = range.addLast(ring.bucket(i));
+            range.setValue(slot, ring.value(i));
+        }
+        if (!range.isEmpty()) {
+            // the values are shared with the range as with a copy
+            shared = true;
+        }
+        return new TimeSeries<>(this, false, range, false);
+    }
+
+    private int ceilingIndexOf(long bucket) {
+        int index = ring.indexOf(bucket);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int indexOfKey(Object key) {
+        if (!(key instanceof LocalDateTime)) {
+            return -1;
+        }
+
+        LocalDateTime date = (LocalDateTime) key;
+        long bucket = indexer.index(date);
+        if (!indexer.key(bucket).equals(date)) {
+            return -1;
+        }
+        return ring.indexOf(bucket);
+    }
+
+    /**
+     * The ring holds one bucket over the max size, as a new bucket is added
+     * before the first one is evicted.
+     */
+    private static int ringCapacity(int maxSize) {
+        return maxSize < Integer.MAX_VALUE ? maxSize + 1 : maxSize;
+    }
+
+    private static Clock defaultClock() {
+        return Clock.systemDefaultZone();
     }
 
     private static <V> MergeFunction<V> defaultMergeFunction() {
         return MergeFunction.replace();
     }
 
+    private final class SerialIterator implements Iterator<Entry<LocalDateTime, V>> {
+
+        private final ObjectBucketRing<V> ring;
+        private final GapFill<V> gapFill;
+        private final long lastBucket;
+        private long bucket;
+        private int index;
+
+        private SerialIterator(ObjectBucketRing<V> ring, GapFill<V> gapFill) {
+            this.ring = ring;
+            this.gapFill = gapFill;
+            this.bucket = ring.isEmpty() ? 0 : ring.firstBucket();
+            this.lastBucket = ring.isEmpty() ? -1 : ring.lastBucket();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return bucket <= lastBucket;
+        }
+
+        @Override
+        public Entry<LocalDateTime, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            V value;
+            if (ring.bucket(index) == bucket) {
+                value = ring.value(index++);
+            } else {
+                long previousBucket = ring.bucket(index - 1);
+                value = gapFill.fill(
+                        ring.value(index - 1),
+                        ring.value(index),
+                        bucket - previousBucket,
+                        ring.bucket(index) - previousBucket);
+            }
+            return new SimpleImmutableEntry<>(indexer.key(bucket++), value);
+        }
+
+    }
+
+    private final class RingSpliterator implements Spliterator<Entry<LocalDateTime, V>> {
+
+        private final ObjectBucketRing<V> ring;
+        private int index;
+        private final int toIndex;
+
+        private RingSpliterator(ObjectBucketRing<V> ring, int fromIndex, int toIndex) {
+            this.ring = ring;
+            this.index = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<LocalDateTime, V>> action) {
+            if (index >= toIndex) {
+                return false;
+            }
+            action.accept(entryAt(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<LocalDateTime, V>> action) {
+            for (; index < toIndex; index++) {
+                action.accept(entryAt(index));
+            }
+        }
+
+        @Override
+        public Spliterator<Entry<LocalDateTime, V>> trySplit() {
+            int middle = (index + toIndex) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            RingSpliterator prefix = new RingSpliterator(ring, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return toIndex - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Entry<LocalDateTime, V>> getComparator() {
+            return Entry.comparingByKey();
+        }
+
+        private Entry<LocalDateTime, V> entryAt(int index) {
+            return new SimpleImmutableEntry<>(indexer.key(ring.bucket(index)), ring.value(index));
+        }
+
+    }
+
+    private final class DataView extends AbstractMap<LocalDateTime, V> {
+
+        private final Set<Entry<LocalDateTime, V>> entrySet = new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<LocalDateTime, V>> iterator() {
+                return new Iterator<>() {
+
+                    private final ObjectBucketRing<V> iterated = ring;
+                    private final int expectedModCount = modCount;
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < iterated.size();
+                    }
+
+                    @Override
+                    public Entry<LocalDateTime, V> next() {
+                        if (modCount != expectedModCount) {
+                            throw new ConcurrentModificationException();
+                        }
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<LocalDateTime, V> entry = new SimpleImmutableEntry<>(
+                                indexer.key(iterated.bucket(index)),
+                                iterated.value(index));
+                        index++;
+                        return entry;
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return ring.size();
+            }
+
+        };
+
+        @Override
+        public Set<Entry<LocalDateTime, V>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public int size() {
+            return ring.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOfKey(key) >= 0;
+        }
+
+        @Override
+        public V get(Object key) {
+            int index = indexOfKey(key);
+            return index >= 0 ? ring.value(index) : null;
+        }
+
+    }
+
 }
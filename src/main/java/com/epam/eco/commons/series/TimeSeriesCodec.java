@@ -0,0 +1,388 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Compact binary encoding of numeric series, after the Gorilla paper: bucket
+ * indexes are written as delta-of-deltas (one bit per point for regular
+ * series) and values as XOR with the previous value, of which only the
+ * meaningful bits are stored. Long values are XOR-ed as is, double values by
+ * their IEEE 754 bits.
+ * <p>
+ * The layout is a fixed header (version, value type, granularity in nanos,
+ * max size and point count) followed by the bit stream. Encoding and decoding
+ * work directly on the given {@link ByteBuffer} starting at its position.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class TimeSeriesCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_DOUBLE = 2;
+
+    private static final int HEADER_SIZE = 1 + 1 + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int MAX_POINT_BITS = 4 + 64 + 2 + 5 + 6 + 64;
+
+    private TimeSeriesCodec() {
+    }
+
+    /**
+     * Returns the number of bytes enough to encode a series of the given size.
+     */
+    public static int maxEncodedSize(int size) {
+        Validate.isTrue(size >= 0, "Size is invalid");
+
+        return HEADER_SIZE + (int) ((size * (long) MAX_POINT_BITS + 7) / 8);
+    }
+
+    public static void encode(LongTimeSeries series, ByteBuffer buffer) {
+        Validate.notNull(series, "Series is null");
+        Validate.notNull(buffer, "Buffer is null");
+
+        LongBucketRing ring = series.ring();
+        Encoder encoder = new Encoder(buffer, TYPE_LONG, series.indexer, series.maxSize, ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            encoder.write(ring.bucket(i), ring.value(i));
+        }
+        encoder.flush();
+    }
+
+    public static void encode(DoubleTimeSeries series, ByteBuffer buffer) {
+        Validate.notNull(series, "Series is null");
+        Validate.notNull(buffer, "Buffer is null");
+
+        DoubleBucketRing ring = series.ring();
+        Encoder encoder = new Encoder(buffer, TYPE_DOUBLE, series.indexer, series.maxSize, ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            encoder.write(ring.bucket(i), Double.doubleToRawLongBits(ring.value(i)));
+        }
+        encoder.flush();
+    }
+
+    public static void encodeLongs(TimeSeries<Long> series, ByteBuffer buffer) {
+        Validate.notNull(series, "Series is null");
+        Validate.notNull(buffer, "Buffer is null");
+
+        ObjectBucketRing<Long> ring = series.ring();
+        Encoder encoder = new Encoder(
+                buffer, TYPE_LONG, BucketIndexer.of(series.getGranularity()), series.getMaxSize(), ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            encoder.write(ring.bucket(i), ring.value(i));
+        }
+        encoder.flush();
+    }
+
+    public static void encodeDoubles(TimeSeries<Double> series, ByteBuffer buffer) {
+        Validate.notNull(series, "Series is null");
+        Validate.notNull(buffer, "Buffer is null");
+
+        ObjectBucketRing<Double> ring = series.ring();
+        Encoder encoder = new Encoder(
+                buffer, TYPE_DOUBLE, BucketIndexer.of(series.getGranularity()), series.getMaxSize(), ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            encoder.write(ring.bucket(i), Double.doubleToRawLongBits(ring.value(i)));
+        }
+        encoder.flush();
+    }
+
+    public static LongTimeSeries decodeLongTimeSeries(ByteBuffer buffer) {
+        return decodeLongTimeSeries(buffer, LongMergeFunction.replace());
+    }
+
+    public static LongTimeSeries decodeLongTimeSeries(ByteBuffer buffer, LongBinaryOperator mergeFunction) {
+        Decoder decoder = new Decoder(buffer, TYPE_LONG);
+        LongTimeSeries series = new LongTimeSeries(decoder.maxSize, decoder.granularity, mergeFunction);
+        while (decoder.hasNext()) {
+            decoder.next();
+            series.appendToBucket(decoder.bucket, decoder.bits);
+        }
+        return series;
+    }
+
+    public static DoubleTimeSeries decodeDoubleTimeSeries(ByteBuffer buffer) {
+        return decodeDoubleTimeSeries(buffer, DoubleMergeFunction.replace());
+    }
+
+    public static DoubleTimeSeries decodeDoubleTimeSeries(ByteBuffer buffer, DoubleBinaryOperator mergeFunction) {
+        Decoder decoder = new Decoder(buffer, TYPE_DOUBLE);
+        DoubleTimeSeries series = new DoubleTimeSeries(decoder.maxSize, decoder.granularity, mergeFunction);
+        while (decoder.hasNext()) {
+            decoder.next();
+            series.appendToBucket(decoder.bucket, Double.longBitsToDouble(decoder.bits));
+        }
+        return series;
+    }
+
+    public static TimeSeries<Long> decodeLongs(ByteBuffer buffer, MergeFunction<Long> mergeFunction) {
+        Decoder decoder = new Decoder(buffer, TYPE_LONG);
+        TimeSeries<Long> series = new TimeSeries<>(decoder.maxSize, decoder.granularity, mergeFunction);
+        while (decoder.hasNext()) {
+            decoder.next();
+            series.appendToBucket(decoder.bucket, decoder.bits);
+        }
+        return series;
+    }
+
+    public static TimeSeries<Double> decodeDoubles(ByteBuffer buffer, MergeFunction<Double> mergeFunction) {
+        Decoder decoder = new Decoder(buffer, TYPE_DOUBLE);
+        TimeSeries<Double> series = new TimeSeries<>(decoder.maxSize, decoder.granularity, mergeFunction);
+        while (decoder.hasNext()) {
+            decoder.next();
+            series.appendToBucket(decoder.bucket, Double.longBitsToDouble(decoder.bits));
+        }
+        return series;
+    }
+
+    static TemporalUnit granularityOf(long nanos) {
+        for (ChronoUnit unit : ChronoUnit.values()) {
+            if (unit.compareTo(ChronoUnit.DAYS) > 0) {
+                break;
+            }
+            if (unit.getDuration().toNanos() == nanos) {
+                return unit;
+            }
+        }
+        return DurationUnit.of(Duration.ofNanos(nanos));
+    }
+
+    private static final class Encoder {
+
+        private final ByteBuffer buffer;
+        private int current;
+        private int count;
+
+        private boolean first = true;
+        private long previousBucket;
+        private long previousDelta;
+        private long previousBits;
+        private int previousLeading = Integer.MAX_VALUE;
+        private int previousTrailing;
+
+        private Encoder(ByteBuffer buffer, byte type, BucketIndexer indexer, int maxSize, int size) {
+            this.buffer = buffer;
+
+            buffer.put(VERSION);
+            buffer.put(type);
+            buffer.putLong(indexer.getNanos());
+            buffer.putInt(maxSize);
+            buffer.putInt(size);
+        }
+
+        private void write(long bucket, long bits) {
+            if (first) {
+                writeBits(bucket, 64);
+                writeBits(bits, 64);
+                first = false;
+            } else {
+                writeBucket(bucket);
+                writeValue(bits);
+            }
+            previousBucket = bucket;
+            previousBits = bits;
+        }
+
+        private void writeBucket(long bucket) {
+            long delta = bucket - previousBucket;
+            long deltaOfDelta = delta - previousDelta;
+            previousDelta = delta;
+
+            if (deltaOfDelta == 0) {
+                writeBits(0b0, 1);
+            } else if (fits(deltaOfDelta, 7)) {
+                writeBits(0b10, 2);
+                writeBits(deltaOfDelta, 7);
+            } else if (fits(deltaOfDelta, 9)) {
+                writeBits(0b110, 3);
+                writeBits(deltaOfDelta, 9);
+            } else if (fits(deltaOfDelta, 12)) {
+                writeBits(0b1110, 4);
+                writeBits(deltaOfDelta, 12);
+            } else {
+                writeBits(0b1111, 4);
+                writeBits(deltaOfDelta, 64);
+            }
+        }
+
+        private void writeValue(long bits) {
+            long xor = bits ^ previousBits;
+            if (xor == 0) {
+                writeBits(0b0, 1);
+                return;
+            }
+
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= previousLeading && trailing >= previousTrailing) {
+                writeBits(0b10, 2);
+                writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                writeBits(0b11, 2);
+                writeBits(leading, 5);
+                writeBits(significant == 64 ? 0 : significant, 6);
+                writeBits(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        private void writeBits(long value, int bits) {
+            while (bits > 0) {
+                int taken = Math.min(8 - count, bits);
+                int chunk = (int) (value >>> (bits - taken)) & ((1 << taken) - 1);
+                current = (current << taken) | chunk;
+                count += taken;
+                bits -= taken;
+                if (count == 8) {
+                    buffer.put((byte) current);
+                    current = 0;
+                    count = 0;
+                }
+            }
+        }
+
+        private void flush() {
+            if (count > 0) {
+                buffer.put((byte) (current << (8 - count)));
+                current = 0;
+                count = 0;
+            }
+        }
+
+        private static boolean fits(long value, int bits) {
+            long bound = 1L << (bits - 1);
+            return value >= -bound && value < bound;
+        }
+
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final TemporalUnit granularity;
+        private final int maxSize;
+        private int remaining;
+        private int current;
+        private int count;
+
+        private boolean first = true;
+        private long bucket;
+        private long delta;
+        private long bits;
+        private int leading;
+        private int trailing;
+
+        private Decoder(ByteBuffer buffer, byte type) {
+            Validate.notNull(buffer, "Buffer is null");
+
+            this.buffer = buffer;
+
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported version: " + version);
+            }
+            byte actualType = buffer.get();
+            if (actualType != type) {
+                throw new IllegalArgumentException("Unexpected value type: " + actualType);
+            }
+            this.granularity = granularityOf(buffer.getLong());
+            this.maxSize = buffer.getInt();
+            this.remaining = buffer.getInt();
+        }
+
+        private boolean hasNext() {
+            return remaining > 0;
+        }
+
+        private void next() {
+            if (first) {
+                bucket = readBits(64);
+                bits = readBits(64);
+                first = false;
+            } else {
+                readBucket();
+                readValue();
+            }
+            remaining--;
+        }
+
+        private void readBucket() {
+            long deltaOfDelta;
+            if (readBits(1) == 0) {
+                deltaOfDelta = 0;
+            } else if (readBits(1) == 0) {
+                deltaOfDelta = readSigned(7);
+            } else if (readBits(1) == 0) {
+                deltaOfDelta = readSigned(9);
+            } else if (readBits(1) == 0) {
+                deltaOfDelta = readSigned(12);
+            } else {
+                deltaOfDelta = readBits(64);
+            }
+            delta += deltaOfDelta;
+            bucket += delta;
+        }
+
+        private void readValue() {
+            if (readBits(1) == 0) {
+                return;
+            }
+
+            if (readBits(1) == 1) {
+                leading = (int) readBits(5);
+                int significant = (int) readBits(6);
+                if (significant == 0) {
+                    significant = 64;
+                }
+                trailing = 64 - leading - significant;
+            }
+            bits ^= readBits(64 - leading - trailing) << trailing;
+        }
+
+        private long readSigned(int bits) {
+            long value = readBits(bits);
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+
+        private long readBits(int bits) {
+            long value = 0;
+            while (bits > 0) {
+                if (count == 0) {
+                    current = buffer.get() & 0xFF;
+                    count = 8;
+                }
+                int taken = Math.min(count, bits);
+                int chunk = (current >>> (count - taken)) & ((1 << taken) - 1);
+                value = (value << taken) | chunk;
+                count -= taken;
+                bits -= taken;
+            }
+            return value;
+        }
+
+    }
+
+}
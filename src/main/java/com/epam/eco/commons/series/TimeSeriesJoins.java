@@ -0,0 +1,216 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Joins of series on their serial keys. The series are aligned in one merge
+ * pass over their buckets, without looking keys up, and the joined values are
+ * appended to a new series of the same granularity, with the clock of the
+ * first series and the largest max size of them.
+ * <p>
+ * The series must not be modified while they are joined.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class TimeSeriesJoins {
+
+    private static final int GROUPS_PER_THREAD = 4;
+
+    private TimeSeriesJoins() {
+    }
+
+    /**
+     * Joins the series and combines their values of each key. The combiner
+     * gets the values in the order of the series, with gaps as {@code null}
+     * (see {@link JoinType#OUTER}); the list is reused between keys, so it
+     * mustn't be kept. Keys for which the combiner returns {@code null} are
+     * skipped.
+     */
+    public static <V, R> TimeSeries<R> join(
+            List<? extends TimeSeries<? extends V>> series,
+            JoinType type,
+            Function<? super List<V>, ? extends R> combiner) {
+        Validate.notNull(combiner, "Combiner is null");
+
+        return join(series, type, MergeFunction.replace(), values -> {
+            @SuppressWarnings("unchecked")
+            List<V> list = (List<V>) Arrays.asList(values);
+            return combiner.apply(Collections.unmodifiableList(list));
+        });
+    }
+
+    /**
+     * Joins two series and combines their values of each key, e.g. into their
+     * ratio. See {@link #join(List, JoinType, Function)}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> TimeSeries<R> zip(
+            TimeSeries<A> left,
+            TimeSeries<B> right,
+            JoinType type,
+            BiFunction<? super A, ? super B, ? extends R> combiner) {
+        Validate.notNull(left, "Left series is null");
+        Validate.notNull(right, "Right series is null");
+        Validate.notNull(combiner, "Combiner is null");
+
+        return join(
+                List.of(left, right),
+                type,
+                MergeFunction.replace(),
+                values -> combiner.apply((A) values[0], (B) values[1]));
+    }
+
+    /**
+     * Merges the values of each key of the series with the merge function,
+     * e.g. sums them up, gaps being skipped. The merge function is also the one
+     * of the resulting series, and must be associative, as groups of the series
+     * are aggregated in parallel on the common fork-join pool and then merged.
+     */
+    public static <V> TimeSeries<V> aggregate(
+            Collection<? extends TimeSeries<V>> series,
+            MergeFunction<V> mergeFunction) {
+        return aggregate(ForkJoinPool.commonPool(), series, mergeFunction);
+    }
+
+    public static <V> TimeSeries<V> aggregate(
+            ForkJoinPool pool,
+            Collection<? extends TimeSeries<V>> series,
+            MergeFunction<V> mergeFunction) {
+        Validate.notNull(pool, "Pool is null");
+        Validate.notEmpty(series, "Series is empty");
+        Validate.notNull(mergeFunction, "MergeFunction is null");
+
+        List<TimeSeries<V>> list = new ArrayList<>(series);
+        int groupSize = Math.max(2, list.size() / (pool.getParallelism() * GROUPS_PER_THREAD) + 1);
+        List<List<TimeSeries<V>>> groups = new ArrayList<>((list.size() + groupSize - 1) / groupSize);
+        for (int i = 0; i < list.size(); i += groupSize) {
+            groups.add(list.subList(i, Math.min(list.size(), i + groupSize)));
+        }
+        if (groups.size() == 1) {
+            return aggregate(groups.get(0), mergeFunction);
+        }
+
+        return TimeSeriesReductions.reduce(
+                pool,
+                groups,
+                null,
+                group -> aggregate(group, mergeFunction),
+                (left, right) -> {
+                    if (left == null) {
+                        return right;
+                    }
+                    if (right == null) {
+                        return left;
+                    }
+                    return aggregate(List.of(left, right), mergeFunction);
+                });
+    }
+
+    private static <V> TimeSeries<V> aggregate(
+            List<? extends TimeSeries<V>> series,
+            MergeFunction<V> mergeFunction) {
+        return join(series, JoinType.OUTER, mergeFunction, values -> {
+            // the values belong to the input series, so they are merged into
+            // a copy of the first one
+            V result = null;
+            for (Object each : values) {
+                @SuppressWarnings("unchecked")
+                V value = (V) each;
+                if (value != null) {
+                    result = result != null ? mergeFunction.apply(result, value) : mergeFunction.copy(value);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static <R> TimeSeries<R> join(
+            List<? extends TimeSeries<?>> series,
+            JoinType type,
+            MergeFunction<R> mergeFunction,
+            Function<Object[], ? extends R> combiner) {
+        Validate.notEmpty(series, "Series is empty");
+        Validate.noNullElements(series, "Series contain null");
+        Validate.notNull(type, "Join type is null");
+
+        int count = series.size();
+        TimeSeries<?> first = series.get(0);
+        ObjectBucketRing<?>[] rings = new ObjectBucketRing<?>[count];
+        int maxSize = 0;
+        for (int i = 0; i < count; i++) {
+            TimeSeries<?> single = series.get(i);
+            if (single.granularityNanos() != first.granularityNanos()) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Granularity %s of series %d differs from %s",
+                                single.getGranularity(), i, first.getGranularity()));
+            }
+            rings[i] = single.ring();
+            maxSize = Math.max(maxSize, single.getMaxSize());
+        }
+
+        TimeSeries<R> result = new TimeSeries<>(maxSize, first.getGranularity(), mergeFunction, first.getClock());
+        int[] cursors = new int[count];
+        Object[] values = new Object[count];
+        while (true) {
+            boolean found = false;
+            long bucket = 0;
+            for (int i = 0; i < count; i++) {
+                if (cursors[i] < rings[i].size()) {
+                    long candidate = rings[i].bucket(cursors[i]);
+                    if (!found || candidate < bucket) {
+                        bucket = candidate;
+                        found = true;
+                    }
+                }
+            }
+            if (!found) {
+                break;
+            }
+
+            int present = 0;
+            for (int i = 0; i < count; i++) {
+                if (cursors[i] < rings[i].size() && rings[i].bucket(cursors[i]) == bucket) {
+                    values[i] = rings[i].value(cursors[i]++);
+                    present++;
+                } else {
+                    values[i] = null;
+                }
+            }
+            if (type == JoinType.INNER && present < count) {
+                continue;
+            }
+
+            R value = combiner.apply(values);
+            if (value != null) {
+                result.appendToBucket(bucket, value);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receives the changes of a {@link TimeSeries}. Callbacks are invoked
+ * synchronously by the thread that modifies the series.
+ *
+ * @author Andrei_Tytsik
+ */
+public interface TimeSeriesListener<V> {
+
+    /**
+     * Invoked once the value is merged into the bucket. The old value is
+     * {@code null} for a new bucket, and the new value is {@code null} if the
+     * merge function returned {@code null}, in which case the bucket has been
+     * removed.
+     */
+    default void onAppended(LocalDateTime key, V oldValue, V newValue) {
+    }
+
+    default void onEvicted(LocalDateTime key, V value) {
+    }
+
+}
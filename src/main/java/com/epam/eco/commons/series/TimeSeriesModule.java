@@ -0,0 +1,454 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.TemporalUnit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Jackson module which writes series in columnar form instead of an entry per
+ * point:
+ * <pre>
+ * {"granularity":"PT1M","maxSize":10,"start":29000000,"values":[1,2,null,4]}
+ * </pre>
+ * where {@code granularity} is an ISO-8601 duration, {@code start} is the
+ * index of the first bucket since the local epoch, i.e. local epoch time
+ * divided by granularity, and {@code values} are the values of consecutive
+ * buckets, {@code null} for gaps. When a series is sparse, a {@code steps}
+ * array precedes the values and gives the distance in buckets from the
+ * previous value instead, so that gaps are not written.
+ * <p>
+ * Series are written directly from their storage and read back without
+ * intermediate collections, so the header fields are expected before the
+ * values. Merge functions are not written; series are read with the default
+ * ones.
+ * <p>
+ * The module is opt-in and is not registered by {@code JsonMapper}, as the
+ * format differs from the default bean one, which may be expected by existing
+ * consumers:
+ * <pre>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new TimeSeriesModule());
+ * </pre>
+ *
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String GRANULARITY = "granularity";
+    static final String MAX_SIZE = "maxSize";
+    static final String START = "start";
+    static final String STEPS = "steps";
+    static final String VALUES = "values";
+
+    /**
+     * Series spanning more buckets than this factor of their size are written
+     * with steps.
+     */
+    private static final int SPARSE_FACTOR = 2;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimeSeriesModule() {
+        super(TimeSeriesModule.class.getSimpleName());
+
+        addSerializer(LongTimeSeries.class, new LongTimeSeriesSerializer());
+        addSerializer(DoubleTimeSeries.class, new DoubleTimeSeriesSerializer());
+        addSerializer((Class) TimeSeries.class, new ObjectTimeSeriesSerializer());
+        addDeserializer(LongTimeSeries.class, new LongTimeSeriesDeserializer());
+        addDeserializer(DoubleTimeSeries.class, new DoubleTimeSeriesDeserializer());
+        addDeserializer((Class) TimeSeries.class, new ObjectTimeSeriesDeserializer(null, null));
+    }
+
+    private abstract static class SeriesSerializer<T, R extends BucketRing> extends StdSerializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        protected SeriesSerializer(Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        public void serialize(T series, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            R ring = ring(series);
+            int size = ring.size();
+
+            gen.writeStartObject(series);
+            gen.writeStringField(GRANULARITY, Duration.ofNanos(granularityNanos(series)).toString());
+            gen.writeNumberField(MAX_SIZE, maxSize(series));
+
+            boolean sparse = false;
+            if (size > 0) {
+                long start = ring.firstBucket();
+                gen.writeNumberField(START, start);
+
+                sparse = ring.lastBucket() - start + 1 > (long) size * SPARSE_FACTOR;
+                if (sparse) {
+                    gen.writeArrayFieldStart(STEPS);
+                    long previous = start;
+                    for (int i = 0; i < size; i++) {
+                        gen.writeNumber(ring.bucket(i) - previous);
+                        previous = ring.bucket(i);
+                    }
+                    gen.writeEndArray();
+                }
+            }
+
+            gen.writeArrayFieldStart(VALUES);
+            for (int i = 0; i < size; i++) {
+                if (!sparse && i > 0) {
+                    for (long gap = ring.bucket(i) - ring.bucket(i - 1) - 1; gap > 0; gap--) {
+                        gen.writeNull();
+                    }
+                }
+                writeValue(ring, i, gen, provider);
+            }
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+
+        protected abstract R ring(T series);
+
+        protected abstract long granularityNanos(T series);
+
+        protected abstract int maxSize(T series);
+
+        protected abstract void writeValue(
+                R ring,
+                int index,
+                JsonGenerator gen,
+                SerializerProvider provider) throws IOException;
+
+    }
+
+    private static final class LongTimeSeriesSerializer extends SeriesSerializer<LongTimeSeries, LongBucketRing> {
+
+        private static final long serialVersionUID = 1L;
+
+        private LongTimeSeriesSerializer() {
+            super(LongTimeSeries.class);
+        }
+
+        @Override
+        protected LongBucketRing ring(LongTimeSeries series) {
+            return series.ring();
+        }
+
+        @Override
+        protected long granularityNanos(LongTimeSeries series) {
+            return series.indexer.getNanos();
+        }
+
+        @Override
+        protected int maxSize(LongTimeSeries series) {
+            return series.maxSize;
+        }
+
+        @Override
+        protected void writeValue(
+                LongBucketRing ring,
+                int index,
+                JsonGenerator gen,
+                SerializerProvider provider) throws IOException {
+            gen.writeNumber(ring.value(index));
+        }
+
+    }
+
+    private static final class DoubleTimeSeriesSerializer extends SeriesSerializer<DoubleTimeSeries, DoubleBucketRing> {
+
+        private static final long serialVersionUID = 1L;
+
+        private DoubleTimeSeriesSerializer() {
+            super(DoubleTimeSeries.class);
+        }
+
+        @Override
+        protected DoubleBucketRing ring(DoubleTimeSeries series) {
+            return series.ring();
+        }
+
+        @Override
+        protected long granularityNanos(DoubleTimeSeries series) {
+            return series.indexer.getNanos();
+        }
+
+        @Override
+        protected int maxSize(DoubleTimeSeries series) {
+            return series.maxSize;
+        }
+
+        @Override
+        protected void writeValue(
+                DoubleBucketRing ring,
+                int index,
+                JsonGenerator gen,
+                SerializerProvider provider) throws IOException {
+            gen.writeNumber(ring.value(index));
+        }
+
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class ObjectTimeSeriesSerializer
+            extends SeriesSerializer<TimeSeries<Object>, ObjectBucketRing<Object>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private ObjectTimeSeriesSerializer() {
+            super((Class) TimeSeries.class);
+        }
+
+        @Override
+        protected ObjectBucketRing<Object> ring(TimeSeries<Object> series) {
+            return series.ring();
+        }
+
+        @Override
+        protected long granularityNanos(TimeSeries<Object> series) {
+            return series.granularityNanos();
+        }
+
+        @Override
+        protected int maxSize(TimeSeries<Object> series) {
+            return series.getMaxSize();
+        }
+
+        @Override
+        protected void writeValue(
+                ObjectBucketRing<Object> ring,
+                int index,
+                JsonGenerator gen,
+                SerializerProvider provider) throws IOException {
+            Object value = ring.value(index);
+            JsonSerializer<Object> serializer = provider.findValueSerializer(value.getClass());
+            serializer.serialize(value, gen, provider);
+        }
+
+    }
+
+    private abstract static class SeriesDeserializer<T> extends StdDeserializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        protected SeriesDeserializer(Class<?> type) {
+            super(type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (T) ctxt.handleUnexpectedToken(handledType(), p);
+            }
+
+            TemporalUnit granularity = null;
+            int maxSize = -1;
+            long start = 0;
+            long[] steps = null;
+            T series = null;
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                switch (name) {
+                    case GRANULARITY:
+                        granularity = TimeSeriesCodec.granularityOf(Duration.parse(p.getText()).toNanos());
+                        break;
+                    case MAX_SIZE:
+                        maxSize = p.getIntValue();
+                        break;
+                    case START:
+                        start = p.getLongValue();
+                        break;
+                    case STEPS:
+                        steps = ctxt.readValue(p, long[].class);
+                        break;
+                    case VALUES:
+                        series = create(granularity, maxSize, ctxt);
+                        readValues(series, start, steps, p, ctxt);
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return series != null ? series : create(granularity, maxSize, ctxt);
+        }
+
+        private T create(
+                TemporalUnit granularity,
+                int maxSize,
+                DeserializationContext ctxt) throws IOException {
+            if (granularity == null || maxSize <= 0) {
+                return ctxt.reportInputMismatch(
+                        this,
+                        "Fields '%s' and '%s' are expected before '%s'", GRANULARITY, MAX_SIZE, VALUES);
+            }
+            return create(maxSize, granularity);
+        }
+
+        private void readValues(
+                T series,
+                long start,
+                long[] steps,
+                JsonParser p,
+                DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                ctxt.handleUnexpectedToken(handledType(), p);
+                return;
+            }
+
+            long bucket = start;
+            int index = 0;
+            for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+                if (steps != null) {
+                    if (index >= steps.length) {
+                        ctxt.reportInputMismatch(this, "Field '%s' is shorter than '%s'", STEPS, VALUES);
+                    }
+                    bucket += steps[index];
+                } else {
+                    bucket = start + index;
+                }
+                if (token != JsonToken.VALUE_NULL) {
+                    readValue(series, bucket, p, ctxt);
+                }
+                index++;
+            }
+        }
+
+        protected abstract T create(int maxSize, TemporalUnit granularity);
+
+        protected abstract void readValue(
+                T series,
+                long bucket,
+                JsonParser p,
+                DeserializationContext ctxt) throws IOException;
+
+    }
+
+    private static final class LongTimeSeriesDeserializer extends SeriesDeserializer<LongTimeSeries> {
+
+        private static final long serialVersionUID = 1L;
+
+        private LongTimeSeriesDeserializer() {
+            super(LongTimeSeries.class);
+        }
+
+        @Override
+        protected LongTimeSeries create(int maxSize, TemporalUnit granularity) {
+            return new LongTimeSeries(maxSize, granularity);
+        }
+
+        @Override
+        protected void readValue(
+                LongTimeSeries series,
+                long bucket,
+                JsonParser p,
+                DeserializationContext ctxt) throws IOException {
+            series.appendToBucket(bucket, p.getLongValue());
+        }
+
+    }
+
+    private static final class DoubleTimeSeriesDeserializer extends SeriesDeserializer<DoubleTimeSeries> {
+
+        private static final long serialVersionUID = 1L;
+
+        private DoubleTimeSeriesDeserializer() {
+            super(DoubleTimeSeries.class);
+        }
+
+        @Override
+        protected DoubleTimeSeries create(int maxSize, TemporalUnit granularity) {
+            return new DoubleTimeSeries(maxSize, granularity);
+        }
+
+        @Override
+        protected void readValue(
+                DoubleTimeSeries series,
+                long bucket,
+                JsonParser p,
+                DeserializationContext ctxt) throws IOException {
+            // non-finite values are written as strings, e.g. "NaN"
+            double value = p.currentToken() == JsonToken.VALUE_STRING
+                    ? Double.parseDouble(p.getText())
+                    : p.getDoubleValue();
+            series.appendToBucket(bucket, value);
+        }
+
+    }
+
+    private static final class ObjectTimeSeriesDeserializer
+            extends SeriesDeserializer<TimeSeries<Object>> implements ContextualDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private final JavaType valueType;
+        private final JsonDeserializer<Object> valueDeserializer;
+
+        private ObjectTimeSeriesDeserializer(JavaType valueType, JsonDeserializer<Object> valueDeserializer) {
+            super(TimeSeries.class);
+
+            this.valueType = valueType;
+            this.valueDeserializer = valueDeserializer;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(
+                DeserializationContext ctxt,
+                BeanProperty property) throws JsonMappingException {
+            JavaType type = property != null ? property.getType() : ctxt.getContextualType();
+            JavaType contentType = type != null ? type.containedTypeOrUnknown(0) : ctxt.constructType(Object.class);
+            if (contentType.equals(valueType)) {
+                return this;
+            }
+            return new ObjectTimeSeriesDeserializer(
+                    contentType,
+                    ctxt.findContextualValueDeserializer(contentType, property));
+        }
+
+        @Override
+        protected TimeSeries<Object> create(int maxSize, TemporalUnit granularity) {
+            return new TimeSeries<>(maxSize, granularity);
+        }
+
+        @Override
+        protected void readValue(
+                TimeSeries<Object> series,
+                long bucket,
+                JsonParser p,
+                DeserializationContext ctxt) throws IOException {
+            series.appendToBucket(bucket, valueDeserializer.deserialize(p, ctxt));
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Reductions over collections of series, run on a fork-join pool (the common
+ * one by default). The collection is split into ranges, each reduced
+ * sequentially by a task, and the results of the tasks are combined. The
+ * series must not be modified while they are reduced.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class TimeSeriesReductions {
+
+    private static final int TASKS_PER_THREAD = 8;
+
+    private TimeSeriesReductions() {
+    }
+
+    /**
+     * Maps each series to a result and combines the results, which are
+     * combined with the identity as well. The combiner must be associative.
+     */
+    public static <S, R> R reduce(
+            Collection<? extends S> series,
+            R identity,
+            Function<? super S, ? extends R> mapper,
+            BinaryOperator<R> combiner) {
+        return reduce(ForkJoinPool.commonPool(), series, identity, mapper, combiner);
+    }
+
+    public static <S, R> R reduce(
+            ForkJoinPool pool,
+            Collection<? extends S> series,
+            R identity,
+            Function<? super S, ? extends R> mapper,
+            BinaryOperator<R> combiner) {
+        Validate.notNull(pool, "Pool is null");
+        Validate.notNull(series, "Series is null");
+        Validate.notNull(mapper, "Mapper is null");
+        Validate.notNull(combiner, "Combiner is null");
+
+        Object[] array = series.toArray();
+        int threshold = Math.max(1, array.length / (pool.getParallelism() * TASKS_PER_THREAD));
+        return pool.invoke(new ReduceTask<S, R>(array, 0, array.length, threshold, identity, mapper, combiner));
+    }
+
+    /**
+     * Merges the buckets of all series by their keys with the merge function,
+     * e.g. sums them up, so the function must be associative and commutative.
+     * Returns the merged buckets ordered by key.
+     */
+    public static <V> Map<LocalDateTime, V> mergeAll(
+            Collection<? extends TimeSeries<V>> series,
+            MergeFunction<V> mergeFunction) {
+        return mergeAll(ForkJoinPool.commonPool(), series, mergeFunction);
+    }
+
+    public static <V> Map<LocalDateTime, V> mergeAll(
+            ForkJoinPool pool,
+            Collection<? extends TimeSeries<V>> series,
+            MergeFunction<V> mergeFunction) {
+        Validate.notNull(mergeFunction, "MergeFunction is null");
+
+        return reduce(
+                pool,
+                series,
+                new TreeMap<>(),
+                single -> {
+                    // values are merged in place by the combiner, so the
+                    // maps hold copies of the values of the series
+                    Map<LocalDateTime, V> map = new TreeMap<>();
+                    for (Entry<LocalDateTime, V> entry : single) {
+                        map.put(entry.getKey(), mergeFunction.copy(entry.getValue()));
+                    }
+                    return map;
+                },
+                (left, right) -> {
+                    // the maps are private to the reduction, except for the
+                    // empty identity, so the larger one absorbs the smaller
+                    if (left.isEmpty()) {
+                        return right;
+                    }
+                    if (right.isEmpty()) {
+                        return left;
+                    }
+                    Map<LocalDateTime, V> larger = left.size() >= right.size() ? left : right;
+                    Map<LocalDateTime, V> smaller = larger == left ? right : left;
+                    smaller.forEach((key, value) -> larger.merge(key, value, mergeFunction));
+                    return larger;
+                });
+    }
+
+    private static final class ReduceTask<S, R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] series;
+        private final int fromIndex;
+        private final int toIndex;
+        private final int threshold;
+        private final transient R identity;
+        private final transient Function<? super S, ? extends R> mapper;
+        private final transient BinaryOperator<R> combiner;
+
+        private ReduceTask(
+                Object[] series,
+                int fromIndex,
+                int toIndex,
+                int threshold,
+                R identity,
+                Function<? super S, ? extends R> mapper,
+                BinaryOperator<R> combiner) {
+            this.series = series;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.threshold = threshold;
+            this.identity = identity;
+            this.mapper = mapper;
+            this.combiner = combiner;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected R compute() {
+            if (toIndex - fromIndex <= threshold) {
+                R result = identity;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    result = combiner.apply(result, mapper.apply((S) series[i]));
+                }
+                return result;
+            }
+
+            int middle = (fromIndex + toIndex) >>> 1;
+            ReduceTask<S, R> left = new ReduceTask<>(
+                    series, fromIndex, middle, threshold, identity, mapper, combiner);
+            ReduceTask<S, R> right = new ReduceTask<>(
+                    series, middle, toIndex, threshold, identity, mapper, combiner);
+            left.fork();
+            R rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+
+    }
+
+}
@@ -0,0 +1,325 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Registry of series by key, e.g. by metric and tag set, which bounds their
+ * number and estimated memory. Lookups of existing series are lock-free; a
+ * series is created by the factory on first lookup of its key.
+ * <p>
+ * When the number of series or their estimated bytes exceed the caps, the
+ * series idle for longer than the idle timeout are evicted first, then the
+ * least recently used ones, down to {@value #EVICTION_TARGET_PERCENT}% of the
+ * caps, so that eviction is amortized over many creations. Eviction is done
+ * by one thread at a time, and caps may be briefly exceeded meanwhile. Idle
+ * series may also be evicted periodically by {@link #evictIdle()}.
+ * <p>
+ * Access times are recorded with a resolution of
+ * {@value #ACCESS_RESOLUTION_MILLIS} ms, so that frequent lookups of the same
+ * series by many threads don't keep writing the same field.
+ *
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesRegistry<K, S> {
+
+    static final int EVICTION_TARGET_PERCENT = 90;
+    static final long ACCESS_RESOLUTION_MILLIS = 1000;
+
+    private static final long OBJECT_OVERHEAD = 64;
+    private static final long BUCKET_BYTES = Long.BYTES + 8;
+    private static final long BOXED_VALUE_BYTES = 24;
+    private static final long PRIMITIVE_BUCKET_BYTES = Long.BYTES * 2;
+    private static final long ADDER_CELL_BYTES = 96;
+
+    private final Function<? super K, ? extends S> factory;
+    private final int maxSeries;
+    private final long maxBytes;
+    private final Duration idleTimeout;
+    private final ToLongFunction<? super S> weigher;
+    private final Clock clock;
+
+    private final Map<K, Holder<S>> registry = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public TimeSeriesRegistry(Function<? super K, ? extends S> factory, int maxSeries) {
+        this(factory, maxSeries, Long.MAX_VALUE, null);
+    }
+
+    public TimeSeriesRegistry(
+            Function<? super K, ? extends S> factory,
+            int maxSeries,
+            long maxBytes,
+            Duration idleTimeout) {
+        this(factory, maxSeries, maxBytes, idleTimeout, TimeSeriesRegistry::estimateBytes, Clock.systemUTC());
+    }
+
+    public TimeSeriesRegistry(
+            Function<? super K, ? extends S> factory,
+            int maxSeries,
+            long maxBytes,
+            Duration idleTimeout,
+            ToLongFunction<? super S> weigher,
+            Clock clock) {
+        Validate.notNull(factory, "Factory is null");
+        Validate.isTrue(maxSeries > 0, "Max series is invalid");
+        Validate.isTrue(maxBytes > 0, "Max bytes is invalid");
+        Validate.isTrue(
+                idleTimeout == null || (!idleTimeout.isNegative() && !idleTimeout.isZero()),
+                "Idle timeout is invalid");
+        Validate.notNull(weigher, "Weigher is null");
+        Validate.notNull(clock, "Clock is null");
+
+        this.factory = factory;
+        this.maxSeries = maxSeries;
+        this.maxBytes = maxBytes;
+        this.idleTimeout = idleTimeout;
+        this.weigher = weigher;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the series of the key, creating it if there is none.
+     */
+    public S getOrCreate(K key) {
+        Validate.notNull(key, "Key is null");
+
+        Holder<S> holder = registry.get(key);
+        if (holder == null) {
+            holder = registry.computeIfAbsent(key, this::create);
+            if (isOverCaps()) {
+                evict();
+            }
+        }
+        touch(holder);
+        return holder.series;
+    }
+
+    /**
+     * Returns the series of the key, or {@code null} if there is none.
+     */
+    public S get(K key) {
+        Holder<S> holder = registry.get(key);
+        if (holder == null) {
+            return null;
+        }
+        touch(holder);
+        return holder.series;
+    }
+
+    public S remove(K key) {
+        Holder<S> holder = registry.remove(key);
+        if (holder == null) {
+            return null;
+        }
+        bytes.addAndGet(-holder.bytes);
+        return holder.series;
+    }
+
+    public void forEach(BiConsumer<? super K, ? super S> action) {
+        Validate.notNull(action, "Action is null");
+
+        registry.forEach((key, holder) -> action.accept(key, holder.series));
+    }
+
+    /**
+     * Evicts the series idle for longer than the idle timeout. Returns the
+     * number of evicted series.
+     */
+    public int evictIdle() {
+        if (idleTimeout == null) {
+            return 0;
+        }
+
+        long cutoff = clock.millis() - idleTimeout.toMillis();
+        int evicted = 0;
+        for (Map.Entry<K, Holder<S>> entry : registry.entrySet()) {
+            if (entry.getValue().lastAccess < cutoff && evict(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public void clear() {
+        registry.keySet().forEach(this::remove);
+    }
+
+    /**
+     * Returns the current number of series, i.e. the cardinality of keys.
+     */
+    public int size() {
+        return registry.size();
+    }
+
+    public long getEstimatedBytes() {
+        return bytes.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public int getMaxSeries() {
+        return maxSeries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Estimates the retained bytes of a series by its max size, which is what
+     * the series grows to. Buffered series are estimated with a buffer per
+     * available processor, concurrent ones with uncontended adders. Other
+     * objects are estimated as a bare object, so they should be weighed by a
+     * custom weigher when a byte cap is set.
+     */
+    public static long estimateBytes(Object series) {
+        if (series instanceof TimeSeries) {
+            return OBJECT_OVERHEAD + ((TimeSeries<?>) series).getMaxSize() * (BUCKET_BYTES + BOXED_VALUE_BYTES);
+        }
+        if (series instanceof AbstractTimeSeries) {
+            return OBJECT_OVERHEAD + ((AbstractTimeSeries) series).maxSize * PRIMITIVE_BUCKET_BYTES;
+        }
+        if (series instanceof ConcurrentTimeSeries) {
+            return OBJECT_OVERHEAD + ((ConcurrentTimeSeries<?>) series).getMaxSize() * (BUCKET_BYTES + ADDER_CELL_BYTES);
+        }
+        if (series instanceof BufferedTimeSeries) {
+            BufferedTimeSeries<?> buffered = (BufferedTimeSeries<?>) series;
+            long buffers = Runtime.getRuntime().availableProcessors()
+                    * (OBJECT_OVERHEAD + buffered.getBufferSize() * (BUCKET_BYTES + BOXED_VALUE_BYTES));
+            return OBJECT_OVERHEAD + buffered.getMaxSize() * (BUCKET_BYTES + BOXED_VALUE_BYTES) + buffers;
+        }
+        if (series instanceof RateTimeSeries) {
+            return OBJECT_OVERHEAD + ((RateTimeSeries) series).getMaxSize() * 2 * PRIMITIVE_BUCKET_BYTES;
+        }
+        if (series instanceof TieredTimeSeries) {
+            long bytes = OBJECT_OVERHEAD;
+            for (TimeSeries<?> tier : ((TieredTimeSeries<?>) series).tiers()) {
+                bytes += estimateBytes(tier);
+            }
+            return bytes;
+        }
+        return OBJECT_OVERHEAD;
+    }
+
+    private Holder<S> create(K key) {
+        S series = factory.apply(key);
+        Validate.notNull(series, "Factory created null series");
+
+        Holder<S> holder = new Holder<>(series, weigher.applyAsLong(series), clock.millis());
+        bytes.addAndGet(holder.bytes);
+        return holder;
+    }
+
+    private void touch(Holder<S> holder) {
+        long now = clock.millis();
+        if (now - holder.lastAccess >= ACCESS_RESOLUTION_MILLIS) {
+            holder.lastAccess = now;
+        }
+    }
+
+    private boolean isOverCaps() {
+        return registry.size() > maxSeries || bytes.get() > maxBytes;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            evictIdle();
+            if (!isOverCaps()) {
+                return;
+            }
+
+            long targetSeries = maxSeries * (long) EVICTION_TARGET_PERCENT / 100;
+            long targetBytes = maxBytes / 100 * EVICTION_TARGET_PERCENT;
+
+            // access times are snapshotted, as they may change while sorting
+            List<Candidate<K, S>> candidates = new ArrayList<>(registry.size());
+            registry.forEach((key, holder) -> candidates.add(new Candidate<>(key, holder)));
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+            for (Candidate<K, S> candidate : candidates) {
+                if (registry.size() <= targetSeries && bytes.get() <= targetBytes) {
+                    break;
+                }
+                evict(candidate.key, candidate.holder);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean evict(K key, Holder<S> holder) {
+        if (!registry.remove(key, holder)) {
+            return false;
+        }
+        bytes.addAndGet(-holder.bytes);
+        evictedCount.incrementAndGet();
+        return true;
+    }
+
+    private static final class Candidate<K, S> {
+
+        private final K key;
+        private final Holder<S> holder;
+        private final long lastAccess;
+
+        private Candidate(K key, Holder<S> holder) {
+            this.key = key;
+            this.holder = holder;
+            this.lastAccess = holder.lastAccess;
+        }
+
+    }
+
+    private static final class Holder<S> {
+
+        private final S series;
+        private final long bytes;
+        private volatile long lastAccess;
+
+        private Holder(S series, long bytes, long lastAccess) {
+            this.series = series;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically evicts expired buckets from the registered series (see
+ * {@link TimeSeries#evictExpired()}), so that series which are rarely appended
+ * to or read don't hold their expired data. One sweeper is meant to be shared
+ * by many series; they are referenced weakly and dropped once unreachable.
+ * <p>
+ * Eviction is done while holding the monitor of the series, so series that are
+ * accessed by other threads must be guarded by their own monitor as well.
+ * Failures of a series are logged and don't affect the others or later sweeps.
+ *
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesSweeper implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeSeriesSweeper.class);
+
+    private final Set<TimeSeries<?>> registry = Collections.newSetFromMap(new WeakHashMap<>());
+    private final ScheduledExecutorService executor;
+
+    public TimeSeriesSweeper(Duration period) {
+        Validate.notNull(period, "Period is null");
+        Validate.isTrue(!period.isNegative() && !period.isZero(), "Period is invalid");
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "time-series-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(
+                this::sweep,
+                period.toMillis(),
+                period.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void register(TimeSeries<?> series) {
+        Validate.notNull(series, "Series is null");
+
+        synchronized (registry) {
+            registry.add(series);
+        }
+    }
+
+    public void unregister(TimeSeries<?> series) {
+        synchronized (registry) {
+            registry.remove(series);
+        }
+    }
+
+    public int size() {
+        synchronized (registry) {
+            return registry.size();
+        }
+    }
+
+    public void sweep() {
+        TimeSeries<?>[] series;
+        synchronized (registry) {
+            series = registry.toArray(new TimeSeries<?>[0]);
+        }
+
+        for (TimeSeries<?> each : series) {
+            try {
+                synchronized (each) {
+                    each.evictExpired();
+                }
+            } catch (RuntimeException re) {
+                LOGGER.error("Failed to evict expired buckets of time series", re);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
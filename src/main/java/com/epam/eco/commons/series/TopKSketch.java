@@ -0,0 +1,258 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Mergeable sketch of the most frequent items, after the Space-Saving
+ * algorithm. It keeps at most {@code capacity} counters, so its footprint is
+ * fixed regardless of the number of distinct items: an untracked item takes
+ * over the counter of the least frequent one and inherits its count as the
+ * error. Counts are never underestimated and overestimated by at most the
+ * error, which is bounded by {@code total / capacity}; so every item more
+ * frequent than that is tracked. Finding the least frequent counter is linear
+ * in capacity, which is meant to be small, e.g. ten times the number of items
+ * of interest.
+ * <p>
+ * Sketches are merged in place, see {@link MergeFunction#topKSketch()}, by
+ * summing counts (items untracked by a full sketch are counted with its min
+ * count, as they may have been evicted) and keeping the most frequent ones.
+ *
+ * @author Andrei_Tytsik
+ */
+public final class TopKSketch<T> {
+
+    private static final Comparator<Counter<?>> BY_COUNT_DESC =
+            Comparator.<Counter<?>>comparingLong(counter -> counter.count).reversed();
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters;
+
+    private long total;
+
+    public TopKSketch(int capacity) {
+        Validate.isTrue(capacity > 0, "Capacity is invalid");
+
+        this.capacity = capacity;
+        this.counters = new HashMap<>((int) (capacity / 0.75f) + 1);
+    }
+
+    private TopKSketch(TopKSketch<T> source) {
+        this(source.capacity);
+
+        source.counters.forEach((item, counter) -> counters.put(item, new Counter<>(counter)));
+        total = source.total;
+    }
+
+    public TopKSketch<T> add(T item) {
+        return add(item, 1);
+    }
+
+    public TopKSketch<T> add(T item, long weight) {
+        Validate.notNull(item, "Item is null");
+        Validate.isTrue(weight >= 0, "Weight is negative");
+
+        if (weight == 0) {
+            return this;
+        }
+
+        Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            counter.count = Math.addExact(counter.count, weight);
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Counter<>(item, weight, 0));
+        } else {
+            counter = minCounter();
+            counters.remove(counter.item);
+            counter.item = item;
+            counter.error = counter.count;
+            counter.count = Math.addExact(counter.count, weight);
+            counters.put(item, counter);
+        }
+        total = Math.addExact(total, weight);
+        return this;
+    }
+
+    public TopKSketch<T> merge(TopKSketch<T> other) {
+        Validate.notNull(other, "Sketch is null");
+        Validate.isTrue(capacity == other.capacity, "Sketches are of different capacity");
+
+        if (other == this) {
+            other = other.copy();
+        }
+
+        long minCount = isFull() ? minCounter().count : 0;
+        long otherMinCount = other.isFull() ? other.minCounter().count : 0;
+
+        for (Counter<T> counter : counters.values()) {
+            Counter<T> otherCounter = other.counters.get(counter.item);
+            counter.count = Math.addExact(counter.count, otherCounter != null ? otherCounter.count : otherMinCount);
+            counter.error = Math.addExact(counter.error, otherCounter != null ? otherCounter.error : otherMinCount);
+        }
+        for (Counter<T> otherCounter : other.counters.values()) {
+            if (!counters.containsKey(otherCounter.item)) {
+                counters.put(
+                        otherCounter.item,
+                        new Counter<>(
+                                otherCounter.item,
+                                Math.addExact(otherCounter.count, minCount),
+                                Math.addExact(otherCounter.error, minCount)));
+            }
+        }
+        total = Math.addExact(total, other.total);
+
+        if (counters.size() > capacity) {
+            List<Counter<T>> sorted = new ArrayList<>(counters.values());
+            sorted.sort(BY_COUNT_DESC);
+            for (Counter<T> counter : sorted.subList(capacity, sorted.size())) {
+                counters.remove(counter.item);
+            }
+        }
+        return this;
+    }
+
+    public TopKSketch<T> copy() {
+        return new TopKSketch<>(this);
+    }
+
+    /**
+     * Returns up to the given number of the most frequent items, in descending
+     * order of their counts.
+     */
+    public List<Item<T>> top(int count) {
+        Validate.isTrue(count >= 0, "Count is negative");
+
+        List<Counter<T>> sorted = new ArrayList<>(counters.values());
+        sorted.sort(BY_COUNT_DESC);
+
+        List<Item<T>> top = new ArrayList<>(Math.min(count, sorted.size()));
+        for (Counter<T> counter : sorted.subList(0, Math.min(count, sorted.size()))) {
+            top.add(new Item<>(counter.item, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    /**
+     * Returns the estimated count of the item, or {@code 0} if it isn't
+     * tracked.
+     */
+    public long count(T item) {
+        Counter<T> counter = counters.get(item);
+        return counter != null ? counter.count : 0;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    private Counter<T> minCounter() {
+        Counter<T> min = null;
+        for (Counter<T> counter : counters.values()) {
+            if (min == null || counter.count < min.count) {
+                min = counter;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public String toString() {
+        return "TopKSketch{" +
+                "capacity=" + capacity +
+                ", total=" + total +
+                ", top=" + top(3) +
+                '}';
+    }
+
+    public static final class Item<T> {
+
+        private final T item;
+        private final long count;
+        private final long error;
+
+        private Item(T item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * Returns the estimated count, which is never below the actual one.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the max overestimation of the count.
+         */
+        public long getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return item + "=" + count + "±" + error;
+        }
+
+    }
+
+    private static final class Counter<T> {
+
+        private T item;
+        private long count;
+        private long error;
+
+        private Counter(T item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        private Counter(Counter<T> source) {
+            this(source.item, source.count, source.error);
+        }
+
+    }
+
+}
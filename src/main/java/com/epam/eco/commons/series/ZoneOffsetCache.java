@@ -0,0 +1,88 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Converts epoch millis to local epoch millis of the zone. The offset is cached
+ * together with the range between the surrounding zone transitions, so the
+ * conversion is a plain addition until the next transition is crossed.
+ *
+ * @author Andrei_Tytsik
+ */
+final class ZoneOffsetCache {
+
+    private final ZoneRules rules;
+    private volatile Window window;
+
+    private ZoneOffsetCache(ZoneRules rules) {
+        this.rules = rules;
+        this.window = rules.isFixedOffset() ?
+                new Window(Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L) :
+                new Window(0, 0, 0);
+    }
+
+    public static ZoneOffsetCache of(ZoneId zone) {
+        Validate.notNull(zone, "Zone is null");
+
+        return new ZoneOffsetCache(zone.getRules());
+    }
+
+    public long toLocalMillis(long epochMilli) {
+        Window window = this.window;
+        if (epochMilli < window.from || epochMilli >= window.to) {
+            window = resolveWindow(epochMilli);
+            this.window = window;
+        }
+        return epochMilli + window.offsetMillis;
+    }
+
+    private Window resolveWindow(long epochMilli) {
+        Instant instant = Instant.ofEpochMilli(epochMilli);
+        long offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+
+        // the previous transition is strictly before the given instant, so a
+        // transition at the very millisecond is looked up from the next one
+        ZoneOffsetTransition previous = rules.previousTransition(
+                epochMilli < Long.MAX_VALUE ? Instant.ofEpochMilli(epochMilli + 1) : instant);
+        long from = previous != null ? previous.toEpochSecond() * 1000L : Long.MIN_VALUE;
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        long to = next != null ? next.toEpochSecond() * 1000L : Long.MAX_VALUE;
+
+        return new Window(from, to, offsetMillis);
+    }
+
+    private static final class Window {
+
+        private final long from;
+        private final long to;
+        private final long offsetMillis;
+
+        private Window(long from, long to, long offsetMillis) {
+            this.from = from;
+            this.to = to;
+            this.offsetMillis = offsetMillis;
+        }
+
+    }
+
+}
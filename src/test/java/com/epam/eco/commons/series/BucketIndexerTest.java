@@ -0,0 +1,134 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class BucketIndexerTest {
+
+    private static final TemporalUnit[] UNITS = {
+            ChronoUnit.NANOS,
+            ChronoUnit.MICROS,
+            ChronoUnit.MILLIS,
+            ChronoUnit.SECONDS,
+            ChronoUnit.MINUTES,
+            ChronoUnit.HOURS,
+            ChronoUnit.HALF_DAYS,
+            ChronoUnit.DAYS};
+
+    @Test
+    public void testKeysMatchTruncation() {
+        LocalDateTime[] dates = {
+                LocalDateTime.now(),
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(1970, 1, 1, 0, 0),
+                LocalDateTime.of(1901, 3, 7, 11, 12, 13, 14),
+                LocalDateTime.of(2100, 6, 30, 12, 0, 0, 1)};
+
+        for (TemporalUnit unit : UNITS) {
+            BucketIndexer indexer = BucketIndexer.of(unit);
+            for (LocalDateTime date : dates) {
+                long index = indexer.index(date);
+                Assertions.assertEquals(date.truncatedTo(unit), indexer.key(index));
+                Assertions.assertEquals(date.truncatedTo(unit).plus(1, unit), indexer.key(index + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testFarDatesMatchTruncation() {
+        TemporalUnit[] units = {
+                ChronoUnit.MICROS,
+                ChronoUnit.MILLIS,
+                DurationUnit.of(Duration.ofMillis(250)),
+                DurationUnit.of(Duration.ofMillis(1500))};
+        LocalDateTime[] dates = {
+                LocalDateTime.of(2300, 1, 1, 0, 0, 1, 123_456_789),
+                LocalDateTime.of(1500, 7, 14, 23, 59, 59, 999_999_999)};
+
+        for (TemporalUnit unit : units) {
+            BucketIndexer indexer = BucketIndexer.of(unit);
+            for (LocalDateTime date : dates) {
+                long index = indexer.index(date);
+                Assertions.assertFalse(indexer.key(index).isAfter(date));
+                Assertions.assertTrue(indexer.key(index + 1).isAfter(date));
+                Assertions.assertEquals(index, indexer.index(indexer.key(index)));
+                if (unit instanceof ChronoUnit) {
+                    Assertions.assertEquals(date.truncatedTo(unit), indexer.key(index));
+                }
+            }
+        }
+
+        BucketIndexer millis = BucketIndexer.of(ChronoUnit.MILLIS);
+        long localMillis = LocalDateTime.of(2300, 1, 1, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+        Assertions.assertEquals(localMillis, millis.indexOfLocalMillis(localMillis));
+
+        assertThrows(
+                ArithmeticException.class,
+                () -> BucketIndexer.of(ChronoUnit.NANOS).index(LocalDateTime.of(2300, 1, 1, 0, 0)));
+    }
+
+    @Test
+    public void testFailsOnUnsupportedUnits() {
+        assertThrows(Exception.class, () -> BucketIndexer.of(ChronoUnit.WEEKS));
+        assertThrows(Exception.class, () -> BucketIndexer.of(null));
+    }
+
+    @Test
+    public void testDurationUnitsAreEpochAligned() {
+        BucketIndexer indexer = BucketIndexer.of(DurationUnit.ofMinutes(7));
+
+        Assertions.assertEquals(0, indexer.index(LocalDateTime.of(1970, 1, 1, 0, 6, 59)));
+        Assertions.assertEquals(1, indexer.index(LocalDateTime.of(1970, 1, 1, 0, 7)));
+        Assertions.assertEquals(-1, indexer.index(LocalDateTime.of(1969, 12, 31, 23, 59)));
+        Assertions.assertEquals(LocalDateTime.of(1970, 1, 1, 0, 14), indexer.key(2));
+        Assertions.assertEquals(2, indexer.indexOfLocalMillis(14 * 60_000L));
+
+        BucketIndexer week = BucketIndexer.of(DurationUnit.of(Duration.ofDays(7)));
+        Assertions.assertEquals(LocalDateTime.of(1970, 1, 8, 0, 0), week.key(1));
+
+        BucketIndexer subSecond = BucketIndexer.of(DurationUnit.of(Duration.ofMillis(250)));
+        Assertions.assertEquals(
+                LocalDateTime.of(2022, 1, 1, 0, 0, 1, 500_000_000),
+                subSecond.key(subSecond.index(LocalDateTime.of(2022, 1, 1, 0, 0, 1, 700_000_000))));
+    }
+
+    @Test
+    public void testDurationUnitsOfDividingLengthMatchChronoUnits() {
+        LocalDateTime date = LocalDateTime.of(2022, 5, 17, 13, 45, 31, 123);
+
+        Assertions.assertEquals(
+                BucketIndexer.of(ChronoUnit.MINUTES).index(date),
+                BucketIndexer.of(DurationUnit.ofMinutes(1)).index(date));
+        Assertions.assertEquals(
+                date.truncatedTo(ChronoUnit.HOURS).plusMinutes(45),
+                BucketIndexer.of(DurationUnit.ofMinutes(15)).key(
+                        BucketIndexer.of(DurationUnit.ofMinutes(15)).index(date)));
+    }
+
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class BufferedTimeSeriesTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, Month.MARCH, 1, 10, 0);
+
+    @Test
+    public void testBufferedValuesAreMergedOnRead() {
+        BufferedTimeSeries<Long> series = new BufferedTimeSeries<>(MergeFunction.addLong());
+        series.append(DATE, 1L);
+        series.append(DATE.plusSeconds(1), 2L);
+
+        Assertions.assertEquals(3L, series.value(DATE));
+        Assertions.assertEquals(1, series.size());
+        Assertions.assertEquals(DATE, series.lastKey());
+    }
+
+    @Test
+    public void testBufferIsDrainedWhenBucketRolls() {
+        BufferedTimeSeries<Long> series = new BufferedTimeSeries<>(
+                10, ChronoUnit.MINUTES, MergeFunction.addLong(), Clock.systemDefaultZone(), 4);
+        series.append(DATE, 1L);
+        series.append(DATE.plusMinutes(1), 2L);
+        series.append(DATE, 3L);
+        series.append(DATE.plusMinutes(2), 4L);
+
+        TimeSeries<Long> snapshot = series.snapshot();
+
+        Assertions.assertEquals(3, snapshot.size());
+        Assertions.assertEquals(4L, snapshot.value(DATE));
+        Assertions.assertEquals(2L, snapshot.value(DATE.plusMinutes(1)));
+        Assertions.assertEquals(4L, snapshot.value(DATE.plusMinutes(2)));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.append(DATE, 1L));
+    }
+
+    @Test
+    public void testFullBufferIsDrained() {
+        BufferedTimeSeries<Long> series = new BufferedTimeSeries<>(
+                3, ChronoUnit.MINUTES, MergeFunction.addLong(), Clock.systemDefaultZone(), 4);
+        for (int i = 0; i < 100; i++) {
+            series.append(DATE, (long) i);
+        }
+
+        Assertions.assertEquals(4950L, series.lastValue());
+    }
+
+    @Test
+    public void testOldestBucketsAreEvicted() {
+        BufferedTimeSeries<Long> series = new BufferedTimeSeries<>(3, MergeFunction.addLong());
+        for (int i = 0; i < 5; i++) {
+            series.append(DATE.plusMinutes(i), 1L);
+        }
+
+        TimeSeries<Long> snapshot = series.snapshot();
+
+        Assertions.assertEquals(3, snapshot.size());
+        Assertions.assertEquals(DATE.plusMinutes(2), snapshot.firstKey());
+    }
+
+    @Test
+    public void testConcurrentWritersAreMerged() throws Exception {
+        BufferedTimeSeries<Long> series = new BufferedTimeSeries<>(10, MergeFunction.addLong());
+        int threadCount = 8;
+        int appendCount = 100_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < appendCount; i++) {
+                    series.append(DATE.plusMinutes(i % 3), 1L);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (int i = 0; i < 100; i++) {
+            series.flush();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        TimeSeries<Long> snapshot = series.snapshot();
+        long total = 0;
+        for (int i = 0; i < 3; i++) {
+            total += snapshot.value(DATE.plusMinutes(i));
+        }
+        Assertions.assertEquals((long) threadCount * appendCount, total);
+    }
+
+    @Test
+    public void testFailsOnInvalidArguments() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new BufferedTimeSeries<>(
+                        10, ChronoUnit.MINUTES, MergeFunction.addLong(), Clock.systemDefaultZone(), 3));
+        assertThrows(NullPointerException.class, () -> new BufferedTimeSeries<Long>(null));
+
+        BufferedTimeSeries<Long> series = new BufferedTimeSeries<>(MergeFunction.addLong());
+        assertThrows(NullPointerException.class, () -> series.append(DATE, null));
+        assertThrows(NullPointerException.class, () -> series.append((LocalDateTime) null, 1L));
+    }
+
+}
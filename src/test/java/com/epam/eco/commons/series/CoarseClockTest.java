@@ -0,0 +1,126 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.epam.eco.commons.utils.MutableClock;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class CoarseClockTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, Month.MARCH, 1, 10, 0);
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    @Test
+    public void testTimeIsUpdatedOnTick() {
+        MutableClock source = new MutableClock(DATE.atZone(ZONE).toInstant(), ZONE);
+        try (CoarseClock clock = new CoarseClock(source, Duration.ofHours(1))) {
+            Assertions.assertEquals(source.millis(), clock.millis());
+            Assertions.assertEquals(ZONE, clock.getZone());
+
+            source.advance(Duration.ofSeconds(5));
+            Assertions.assertEquals(source.millis() - 5000, clock.millis());
+
+            clock.update();
+            Assertions.assertEquals(source.instant(), clock.instant());
+        }
+    }
+
+    @Test
+    public void testClockTicks() throws Exception {
+        try (CoarseClock clock = new CoarseClock(Duration.ofMillis(1))) {
+            long start = clock.millis();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (clock.millis() == start && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            Assertions.assertTrue(clock.millis() > start);
+        }
+    }
+
+    @Test
+    public void testSeriesAppendToCurrentBucket() {
+        MutableClock source = new MutableClock(DATE.atZone(ZONE).toInstant(), ZONE);
+        try (CoarseClock clock = new CoarseClock(source, Duration.ofHours(1))) {
+            TimeSeries<Long> series = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.addLong(), clock);
+            LongTimeSeries longSeries = new LongTimeSeries(10, ChronoUnit.MINUTES, Long::sum, clock);
+            BufferedTimeSeries<Long> bufferedSeries =
+                    new BufferedTimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.addLong(), clock);
+
+            series.append(1L);
+            longSeries.append(1);
+            bufferedSeries.append(1L);
+            source.advance(Duration.ofMinutes(1));
+            clock.update();
+            series.append(2L);
+            longSeries.append(2);
+            bufferedSeries.append(2L);
+
+            Assertions.assertEquals(1L, series.value(DATE));
+            Assertions.assertEquals(2L, series.value(DATE.plusMinutes(1)));
+            Assertions.assertEquals(1L, longSeries.value(DATE).getAsLong());
+            Assertions.assertEquals(2L, longSeries.value(DATE.plusMinutes(1)).getAsLong());
+            Assertions.assertEquals(2L, bufferedSeries.value(DATE.plusMinutes(1)));
+        }
+    }
+
+    @Test
+    public void testZonesShareTicker() {
+        MutableClock source = new MutableClock(DATE.atZone(ZONE).toInstant(), ZONE);
+        try (CoarseClock clock = new CoarseClock(source, Duration.ofHours(1))) {
+            CoarseClock utcClock = clock.withZone(ZoneOffset.UTC);
+
+            Assertions.assertSame(clock, clock.withZone(ZONE));
+            Assertions.assertEquals(ZoneOffset.UTC, utcClock.getZone());
+
+            TimeSeries<Long> series = new TimeSeries<>(10, ChronoUnit.HOURS, MergeFunction.addLong(), utcClock);
+            source.advance(Duration.ofHours(1));
+            clock.update();
+            series.append(1L);
+
+            Assertions.assertEquals(clock.millis(), utcClock.millis());
+            // 10:00 in Berlin is 09:00 UTC, plus the hour advanced
+            Assertions.assertEquals(1L, series.value(DATE));
+        }
+    }
+
+    @Test
+    public void testSharedClock() {
+        Assertions.assertSame(CoarseClock.shared(), CoarseClock.shared());
+        Assertions.assertEquals(CoarseClock.DEFAULT_TICK, CoarseClock.shared().getTick());
+    }
+
+    @Test
+    public void testFailsOnInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new CoarseClock(null, Duration.ofMillis(1)));
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(Duration.ZERO));
+    }
+
+}
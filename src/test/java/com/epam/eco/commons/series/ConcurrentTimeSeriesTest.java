@@ -0,0 +1,150 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class ConcurrentTimeSeriesTest {
+
+    @Test
+    public void testValuesAccumulated() {
+        ConcurrentTimeSeries<Long> series = new ConcurrentLongTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        series.append(now, 1L);
+        series.append(now, 2L);
+        series.append(now.plusMinutes(1), 3L);
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals(Long.valueOf(3), series.value(now));
+        Assertions.assertEquals(Long.valueOf(3), series.lastValue());
+        Assertions.assertEquals(now.plusMinutes(1).truncatedTo(ChronoUnit.MINUTES), series.lastKey());
+    }
+
+    @Test
+    public void testBucketsRolledOver() {
+        ConcurrentTimeSeries<Double> series = new ConcurrentDoubleTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < 10; i++) {
+            series.append(now.plusMinutes(i), 0.5);
+            series.append(now.plusMinutes(i), (double) i);
+        }
+
+        TimeSeries<Double> snapshot = series.snapshot();
+        Assertions.assertEquals(3, snapshot.size());
+        Iterator<Double> iterator = snapshot.toMap().values().iterator();
+        Assertions.assertEquals(7.5, iterator.next());
+        Assertions.assertEquals(8.5, iterator.next());
+        Assertions.assertEquals(9.5, iterator.next());
+        Assertions.assertNull(series.value(now));
+    }
+
+    @Test
+    public void testOutOfOrderValuesWithinWindowAccepted() {
+        ConcurrentTimeSeries<Long> series = new ConcurrentLongTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        series.append(now.plusMinutes(2), 1L);
+        series.append(now, 1L);
+        series.append(now.plusMinutes(1), 1L);
+
+        Assertions.assertEquals(3, series.snapshot().size());
+        assertThrows(IllegalArgumentException.class, () -> series.append(now.minusMinutes(1), 1L));
+    }
+
+    @Test
+    public void testConcurrentWritesCounted() throws Exception {
+        ConcurrentTimeSeries<Long> series = new ConcurrentLongTimeSeries(5, ChronoUnit.HOURS);
+
+        LocalDateTime date = LocalDateTime.now();
+        int threads = 8;
+        int appends = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < appends; j++) {
+                        series.append(date, 1L);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(Long.valueOf(threads * appends), series.value(date));
+    }
+
+    @Test
+    public void testSnapshotUnmodifiable() {
+        assertThrows(UnsupportedOperationException.class, () -> {
+            ConcurrentTimeSeries<Long> series = new ConcurrentLongTimeSeries();
+
+            series.snapshot().append(LocalDateTime.now(), 1L);
+        });
+    }
+
+    @Test
+    public void testPrimitiveValuesAccumulated() {
+        ConcurrentLongTimeSeries longs = new ConcurrentLongTimeSeries(3);
+        ConcurrentDoubleTimeSeries doubles = new ConcurrentDoubleTimeSeries(3);
+
+        long date = System.currentTimeMillis();
+
+        longs.add(date, 1);
+        longs.add(date, 2);
+        doubles.add(date, 0.5);
+        doubles.add(date, 1);
+
+        Assertions.assertEquals(Long.valueOf(3), longs.lastValue());
+        Assertions.assertEquals(Double.valueOf(1.5), doubles.lastValue());
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments1() {
+        assertThrows(Exception.class, () -> new ConcurrentLongTimeSeries(-1));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments2() {
+        assertThrows(Exception.class, () -> new ConcurrentDoubleTimeSeries(3, null));
+    }
+
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class DoubleTimeSeriesTest {
+
+    @Test
+    public void testSizeLimited() {
+        DoubleTimeSeries series = new DoubleTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < 10; i++) {
+            series.append(now.plusMinutes(i), i + 0.5);
+        }
+
+        Assertions.assertEquals(3, series.size());
+        Iterator<Entry<LocalDateTime, Double>> iterator = series.iterator();
+        Assertions.assertEquals(7.5, iterator.next().getValue());
+        Assertions.assertEquals(8.5, iterator.next().getValue());
+        Assertions.assertEquals(9.5, iterator.next().getValue());
+        Assertions.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testValuesNavigated() {
+        DoubleTimeSeries series = new DoubleTimeSeries(5);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        series.append(now.plusMinutes(1), 1.0);
+        series.append(now.plusMinutes(2), 2.0);
+        series.append(now.plusMinutes(30), 3.0);
+
+        Assertions.assertEquals(OptionalDouble.of(1.0), series.firstValue());
+        Assertions.assertEquals(OptionalDouble.of(3.0), series.lastValue());
+        Assertions.assertEquals(OptionalDouble.of(2.0), series.value(now.plusMinutes(2)));
+        Assertions.assertEquals(OptionalDouble.of(2.0), series.nextSerialValue(now.plusMinutes(1)));
+        Assertions.assertEquals(OptionalDouble.of(3.0), series.nextValue(now.plusMinutes(2)));
+        Assertions.assertEquals(OptionalDouble.of(2.0), series.previousValue(now.plusMinutes(30)));
+        Assertions.assertFalse(series.previousSerialValue(now.plusMinutes(30)).isPresent());
+    }
+
+    @Test
+    public void testValuesMerged() {
+        DoubleTimeSeries series = new DoubleTimeSeries(ChronoUnit.HOURS, Double::sum);
+
+        LocalDateTime date = LocalDateTime.now();
+
+        series.append(date, 0.5);
+        series.append(date, 0.25);
+
+        Assertions.assertEquals(OptionalDouble.of(0.75), series.value(date));
+    }
+
+    @Test
+    public void testUnmodifiableCopyCreated() {
+        assertThrows(UnsupportedOperationException.class, () -> {
+            DoubleTimeSeries series = new DoubleTimeSeries(3);
+
+            series.unmodifiableCopy().append(LocalDateTime.now(), 1.0);
+        });
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments() {
+        assertThrows(Exception.class, () -> {
+            DoubleTimeSeries series = new DoubleTimeSeries(5);
+
+            LocalDateTime now = LocalDateTime.now();
+
+            series.append(now, 1.0);
+            series.append(now.minusHours(1), 2.0);
+        });
+    }
+
+    @Test
+    public void testAppendAllIsEquivalentToAppends() {
+        Random random = new Random(13);
+        for (int round = 0; round < 50; round++) {
+            DoubleTimeSeries expected = new DoubleTimeSeries(4, ChronoUnit.SECONDS, (a, b) -> a / 2 + b);
+            DoubleTimeSeries actual = new DoubleTimeSeries(4, ChronoUnit.SECONDS, (a, b) -> a / 2 + b);
+            long date = 1_000_000L;
+            for (int batch = 0; batch < 3; batch++) {
+                int size = random.nextInt(15);
+                long[] dates = new long[size];
+                double[] values = new double[size];
+                for (int i = 0; i < size; i++) {
+                    date += random.nextInt(3) * 500L;
+                    dates[i] = date;
+                    values[i] = random.nextDouble();
+                    expected.append(dates[i], values[i]);
+                }
+                actual.appendAll(dates, values);
+
+                Assertions.assertEquals(expected.toMap(), actual.toMap());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class DurationUnitTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    public void testUnitArithmetic() {
+        DurationUnit unit = DurationUnit.ofSeconds(15);
+
+        Assertions.assertEquals(Duration.ofSeconds(15), unit.getDuration());
+        Assertions.assertEquals(START.plusSeconds(45), START.plus(3, unit));
+        Assertions.assertEquals(4, unit.between(START, START.plusSeconds(70)));
+        Assertions.assertEquals(DurationUnit.of(Duration.ofSeconds(15)), unit);
+        Assertions.assertFalse(unit.isDurationEstimated());
+        Assertions.assertEquals("PT15S", unit.toString());
+    }
+
+    @Test
+    public void testSeriesAreBucketedByDuration() {
+        TimeSeries<Integer> series = new TimeSeries<>(10, DurationUnit.ofMinutes(5), MergeFunction.addInt());
+        LongTimeSeries longs = new LongTimeSeries(10, DurationUnit.ofMinutes(5), Long::sum);
+        for (int i = 0; i < 12; i++) {
+            series.append(START.plusMinutes(i), 1);
+            longs.append(START.plusMinutes(i), 1);
+        }
+
+        Assertions.assertEquals(3, series.size());
+        Assertions.assertEquals(START.plusMinutes(5), series.keyAt(1));
+        Assertions.assertEquals(5, series.value(START.plusMinutes(9)));
+        Assertions.assertEquals(START.plusMinutes(10), series.nextSerialKey(START.plusMinutes(7)));
+        Assertions.assertEquals(series.toMap(), longs.toMap().entrySet().stream().collect(
+                Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> entry.getValue().intValue())));
+    }
+
+    @Test
+    public void testTiersOfDurationUnits() {
+        TieredTimeSeries<Long> tiers = new TieredTimeSeries<>(List.of(
+                new TimeSeries<>(3, DurationUnit.ofMinutes(5), MergeFunction.addLong()),
+                new TimeSeries<>(3, ChronoUnit.HOURS, MergeFunction.addLong())));
+        for (int i = 0; i < 30; i++) {
+            tiers.append(START.plusMinutes(i), 1L);
+        }
+
+        Assertions.assertEquals(15L, tiers.tier(1).value(START));
+    }
+
+    @Test
+    public void testCodecRoundTripOfDurationUnit() {
+        LongTimeSeries series = new LongTimeSeries(10, DurationUnit.ofSeconds(15), Long::sum);
+        series.append(START, 1);
+        series.append(START.plusSeconds(40), 2);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesCodec.maxEncodedSize(series.size()));
+        TimeSeriesCodec.encode(series, buffer);
+        buffer.flip();
+        LongTimeSeries decoded = TimeSeriesCodec.decodeLongTimeSeries(buffer);
+
+        Assertions.assertEquals(DurationUnit.ofSeconds(15), decoded.getGranularity());
+        Assertions.assertEquals(series.toMap(), decoded.toMap());
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> DurationUnit.of(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> DurationUnit.ofMinutes(-5));
+        assertThrows(NullPointerException.class, () -> DurationUnit.of(null));
+    }
+
+}
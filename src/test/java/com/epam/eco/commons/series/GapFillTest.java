@@ -0,0 +1,106 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class GapFillTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    public void testGapsAreFilled() {
+        TimeSeries<Double> series = sparseSeries();
+
+        Assertions.assertEquals(
+                Arrays.asList(1.0, null, null, 4.0, 5.0, null, 9.0),
+                values(series, GapFill.empty()));
+        Assertions.assertEquals(
+                List.of(1.0, 0.0, 0.0, 4.0, 5.0, 0.0, 9.0),
+                values(series, GapFill.constant(0.0)));
+        Assertions.assertEquals(
+                List.of(1.0, 1.0, 1.0, 4.0, 5.0, 5.0, 9.0),
+                values(series, GapFill.previous()));
+        Assertions.assertEquals(
+                List.of(1.0, 2.0, 3.0, 4.0, 5.0, 7.0, 9.0),
+                values(series, GapFill.linear()));
+    }
+
+    @Test
+    public void testKeysAreSerial() {
+        List<LocalDateTime> keys = sparseSeries().serialStream(GapFill.empty())
+                .map(Entry::getKey)
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(7, keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Assertions.assertEquals(START.plusMinutes(i), keys.get(i));
+        }
+        Assertions.assertEquals(7, sparseSeries().serialStream(GapFill.empty()).spliterator().getExactSizeIfKnown());
+    }
+
+    @Test
+    public void testEmptySeriesHasNoSerialBuckets() {
+        TimeSeries<Double> series = new TimeSeries<>(ChronoUnit.MINUTES);
+
+        Assertions.assertFalse(series.serialIterator(GapFill.linear()).hasNext());
+        Assertions.assertEquals(0, series.serialStream(GapFill.linear()).count());
+    }
+
+    @Test
+    public void testIteratorIsNotAffectedByModifications() {
+        TimeSeries<Double> series = sparseSeries();
+
+        Iterator<Entry<LocalDateTime, Double>> iterator = series.serialIterator(GapFill.previous());
+        series.append(START.plusMinutes(10), 10.0);
+
+        Assertions.assertEquals(7, values(iterator).size());
+        Assertions.assertEquals(11, series.serialStream(GapFill.previous()).count());
+    }
+
+    private static TimeSeries<Double> sparseSeries() {
+        TimeSeries<Double> series = new TimeSeries<>(10, ChronoUnit.MINUTES);
+        series.append(START, 1.0);
+        series.append(START.plusMinutes(3), 4.0);
+        series.append(START.plusMinutes(4), 5.0);
+        series.append(START.plusMinutes(6), 9.0);
+        return series;
+    }
+
+    private static List<Double> values(TimeSeries<Double> series, GapFill<Double> gapFill) {
+        return values(series.serialIterator(gapFill));
+    }
+
+    private static List<Double> values(Iterator<Entry<LocalDateTime, Double>> iterator) {
+        List<Double> values = new ArrayList<>();
+        iterator.forEachRemaining(entry -> values.add(entry.getValue()));
+        return values;
+    }
+
+}
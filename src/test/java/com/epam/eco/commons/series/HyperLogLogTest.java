@@ -0,0 +1,96 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class HyperLogLogTest {
+
+    @Test
+    public void testSmallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        Assertions.assertTrue(sketch.isEmpty());
+        Assertions.assertEquals(0, sketch.estimate());
+
+        for (int i = 0; i < 100; i++) {
+            sketch.add(i);
+            sketch.add(i);
+        }
+
+        Assertions.assertFalse(sketch.isEmpty());
+        Assertions.assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    public void testLargeCardinalitiesAreWithinError() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.add("user-" + i);
+        }
+
+        Assertions.assertEquals(1_000_000, sketch.estimate(), 1_000_000 * 0.05);
+    }
+
+    @Test
+    public void testMergeGivesUnion() {
+        HyperLogLog first = new HyperLogLog(10);
+        HyperLogLog second = new HyperLogLog(10);
+        HyperLogLog all = new HyperLogLog(10);
+        for (long i = 0; i < 20_000; i++) {
+            (i < 15_000 ? first : second).add(i);
+            if (i >= 5_000) {
+                second.add(i);
+            }
+            all.add(i);
+        }
+
+        HyperLogLog merged = first.copy().merge(second);
+
+        Assertions.assertEquals(all.estimate(), merged.estimate());
+        Assertions.assertEquals(merged.estimate(), merged.copy().merge(merged).estimate());
+        Assertions.assertTrue(first.estimate() < merged.estimate());
+    }
+
+    @Test
+    public void testSeriesBucketsAreMergedInPlace() {
+        TimeSeries<HyperLogLog> series = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.hyperLogLog());
+        LocalDateTime date = LocalDateTime.of(2022, 3, 1, 10, 0);
+        HyperLogLog first = new HyperLogLog().add("a").add("b");
+        series.append(date, first);
+        series.append(date.plusSeconds(10), new HyperLogLog().add("b").add("c"));
+
+        Assertions.assertSame(first, series.value(date));
+        Assertions.assertEquals(3, series.value(date).estimate());
+    }
+
+    @Test
+    public void testFailsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+        assertThrows(NullPointerException.class, () -> new HyperLogLog().add(null));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(11)));
+    }
+
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class LongTimeSeriesTest {
+
+    @Test
+    public void testValuesDistributedByGranularity() {
+        LongTimeSeries series = new LongTimeSeries(ChronoUnit.HOURS);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        series.append(now, 0);
+        series.append(now.plusNanos(1), 1);
+        series.append(now.plusSeconds(1), 2);
+        series.append(now.plusMinutes(1), 3);
+
+        Assertions.assertEquals(1, series.size());
+        Assertions.assertEquals(OptionalLong.of(3), series.lastValue());
+        Assertions.assertEquals(now.truncatedTo(ChronoUnit.HOURS), series.lastKey());
+
+        series.append(now.plusHours(1), 4);
+        series.append(now.plusHours(2), 5);
+
+        Assertions.assertEquals(3, series.size());
+        Iterator<Long> iterator = series.toMap().values().iterator();
+        Assertions.assertEquals(3L, iterator.next());
+        Assertions.assertEquals(4L, iterator.next());
+        Assertions.assertEquals(5L, iterator.next());
+    }
+
+    @Test
+    public void testSizeLimitedAndRingWraps() {
+        LongTimeSeries series = new LongTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < 100; i++) {
+            series.append(now.plusMinutes(i), i);
+        }
+
+        Assertions.assertEquals(3, series.size());
+        Iterator<Entry<LocalDateTime, Long>> iterator = series.iterator();
+        Assertions.assertEquals(97L, iterator.next().getValue());
+        Assertions.assertEquals(98L, iterator.next().getValue());
+        Assertions.assertEquals(99L, iterator.next().getValue());
+        Assertions.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testRingGrowsUpToMaxSize() {
+        LongTimeSeries series = new LongTimeSeries(100, ChronoUnit.SECONDS);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < 250; i++) {
+            series.append(now.plusSeconds(i * 2), i);
+        }
+
+        Assertions.assertEquals(100, series.size());
+        Assertions.assertEquals(OptionalLong.of(150), series.firstValue());
+        Assertions.assertEquals(OptionalLong.of(249), series.lastValue());
+        Assertions.assertEquals(OptionalLong.of(200), series.value(now.plusSeconds(400)));
+        Assertions.assertFalse(series.value(now.plusSeconds(401)).isPresent());
+        Assertions.assertEquals(OptionalLong.of(200), series.previousValue(now.plusSeconds(402)));
+        Assertions.assertEquals(OptionalLong.of(201), series.nextValue(now.plusSeconds(400)));
+    }
+
+    @Test
+    public void testNeighboursOfMissingKeyAreNotResolved() {
+        LongTimeSeries series = new LongTimeSeries(10, ChronoUnit.MINUTES);
+        DoubleTimeSeries doubleSeries = new DoubleTimeSeries(10, ChronoUnit.MINUTES);
+        TimeSeries<Long> objectSeries = new TimeSeries<>(10, ChronoUnit.MINUTES);
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 12, 0);
+        for (int i = 0; i <= 5; i += 5) {
+            series.append(start.plusMinutes(i), i);
+            doubleSeries.append(start.plusMinutes(i), i);
+            objectSeries.append(start.plusMinutes(i), (long) i);
+        }
+
+        LocalDateTime missing = start.plusMinutes(3);
+        Assertions.assertNull(objectSeries.previousKey(missing));
+        Assertions.assertNull(series.previousKey(missing));
+        Assertions.assertNull(series.nextKey(missing));
+        Assertions.assertFalse(series.previousValue(missing).isPresent());
+        Assertions.assertFalse(series.nextValue(missing).isPresent());
+        Assertions.assertNull(doubleSeries.previousKey(missing));
+        Assertions.assertFalse(doubleSeries.nextValue(missing).isPresent());
+
+        Assertions.assertEquals(start, series.previousKey(start.plusMinutes(5)));
+        Assertions.assertEquals(start.plusMinutes(5), series.nextKey(start.plusSeconds(30)));
+        Assertions.assertEquals(objectSeries.nextKey(start), series.nextKey(start));
+    }
+
+    @Test
+    public void testKeysNavigated() {
+        LongTimeSeries series = new LongTimeSeries(5);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Assertions.assertNull(series.firstKey());
+        Assertions.assertNull(series.lastKey());
+        Assertions.assertNull(series.nextKey(now));
+        Assertions.assertFalse(series.lastValue().isPresent());
+
+        LocalDateTime key1 = now.plusMinutes(1);
+        LocalDateTime key2 = now.plusMinutes(2);
+        LocalDateTime key3 = now.plusMinutes(30);
+
+        series.append(key1, 1);
+        series.append(key2, 2);
+        series.append(key3, 3);
+
+        Assertions.assertEquals(key1.truncatedTo(ChronoUnit.MINUTES), series.key(key1));
+        Assertions.assertNull(series.key(now.plusMinutes(3)));
+
+        Assertions.assertEquals(series.key(key2), series.nextKey(key1));
+        Assertions.assertEquals(series.key(key3), series.nextKey(key2));
+        Assertions.assertNull(series.nextKey(key3));
+        Assertions.assertEquals(series.key(key2), series.previousKey(key3));
+        Assertions.assertNull(series.previousKey(key1));
+
+        Assertions.assertEquals(series.key(key2), series.nextSerialKey(key1));
+        Assertions.assertNull(series.nextSerialKey(key2));
+        Assertions.assertEquals(series.key(key1), series.previousSerialKey(key2));
+        Assertions.assertNull(series.previousSerialKey(key3));
+
+        Assertions.assertEquals(OptionalLong.of(2), series.nextSerialValue(key1));
+        Assertions.assertEquals(OptionalLong.of(1), series.previousSerialValue(key2));
+        Assertions.assertFalse(series.previousSerialValue(key3).isPresent());
+    }
+
+    @Test
+    public void testValuesMerged() {
+        LongTimeSeries series = new LongTimeSeries(3, Long::sum);
+
+        LocalDateTime date = LocalDateTime.now().plusMinutes(10);
+
+        series.append(date, 1);
+        series.append(date, 2);
+        series.append(date, 3);
+
+        Assertions.assertEquals(OptionalLong.of(6), series.value(date));
+    }
+
+    @Test
+    public void testAppendedWithClock() {
+        Instant instant = Instant.parse("2022-03-04T10:15:30.123Z");
+        LongTimeSeries series = new LongTimeSeries(
+                3, ChronoUnit.SECONDS, Long::sum, Clock.fixed(instant, ZoneOffset.ofHours(2)));
+
+        series.append(1);
+        series.append(instant.toEpochMilli() + 876, 2);
+        series.append(instant.toEpochMilli() + 877, 4);
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals(OptionalLong.of(3), series.value(LocalDateTime.of(2022, 3, 4, 12, 15, 30)));
+        Assertions.assertEquals(OptionalLong.of(4), series.value(LocalDateTime.of(2022, 3, 4, 12, 15, 31)));
+    }
+
+    @Test
+    public void testSubSeriesResolved() {
+        LongTimeSeries series = new LongTimeSeries(10);
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 10, 0);
+        for (int i = 0; i < 10; i++) {
+            if (i != 4) {
+                series.append(start.plusMinutes(i), i);
+            }
+        }
+
+        LongTimeSeries subSeries = series.subSeries(start.plusMinutes(3), start.plusMinutes(6));
+        Assertions.assertEquals(2, subSeries.size());
+        Assertions.assertEquals(3, subSeries.valueAt(0));
+        Assertions.assertEquals(5, subSeries.valueAt(1));
+        Assertions.assertEquals(start.plusMinutes(5), subSeries.keyAt(1));
+
+        Assertions.assertEquals(0, series.subSeries(start.plusMinutes(6), start.plusMinutes(3)).size());
+        Assertions.assertEquals(2, series.headSeries(start.plusMinutes(1).plusSeconds(1)).size());
+        Assertions.assertEquals(1, series.tailSeries(start.plusMinutes(8).plusSeconds(1)).size());
+        assertThrows(IndexOutOfBoundsException.class, () -> series.keyAt(9));
+    }
+
+    @Test
+    public void testCopiesCreated() {
+        LongTimeSeries series = new LongTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+        series.append(now, 1);
+
+        LongTimeSeries copy = series.copy();
+        copy.append(now.plusMinutes(1), 2);
+
+        Assertions.assertEquals(1, series.size());
+        Assertions.assertEquals(2, copy.size());
+
+        LongTimeSeries unmodifiableCopy = series.unmodifiableCopy();
+        Assertions.assertEquals(1, unmodifiableCopy.size());
+        assertThrows(UnsupportedOperationException.class, () -> unmodifiableCopy.append(now, 1));
+    }
+
+    @Test
+    public void testUnmodifiable() {
+        assertThrows(Exception.class, () -> new LongTimeSeries().toMap().put(LocalDateTime.now(), 1L));
+    }
+
+    @Test
+    public void testMapResolved() {
+        LongTimeSeries series = new LongTimeSeries(3);
+
+        LocalDateTime now = LocalDateTime.now();
+        series.append(now, 1);
+        series.append(now.plusMinutes(1), 2);
+
+        Map<LocalDateTime, Long> map = series.toMap();
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(1L, map.get(now.truncatedTo(ChronoUnit.MINUTES)));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments1() {
+        assertThrows(Exception.class, () -> new LongTimeSeries((TemporalUnit)null));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments2() {
+        assertThrows(Exception.class, () -> new LongTimeSeries(-1));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments3() {
+        assertThrows(Exception.class, () -> new LongTimeSeries(ChronoUnit.MONTHS));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments4() {
+        assertThrows(Exception.class, () -> new LongTimeSeries().append(null, 1));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments5() {
+        assertThrows(Exception.class, () -> new LongTimeSeries().nextKey(null));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments6() {
+        assertThrows(Exception.class, () -> {
+            LongTimeSeries series = new LongTimeSeries(5);
+
+            LocalDateTime now = LocalDateTime.now();
+
+            series.append(now, 1);
+            series.append(now.minusHours(1), 2);
+        });
+    }
+
+    @Test
+    public void testAppendAllIsEquivalentToAppends() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            LongTimeSeries expected = new LongTimeSeries(5, ChronoUnit.MINUTES, (a, b) -> a * 31 + b, Clock.systemUTC());
+            LongTimeSeries actual = new LongTimeSeries(5, ChronoUnit.MINUTES, (a, b) -> a * 31 + b, Clock.systemUTC());
+            long date = 0;
+            for (int batch = 0; batch < 3; batch++) {
+                int size = random.nextInt(20);
+                long[] dates = new long[size];
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    date += random.nextInt(3) * 30_000L;
+                    dates[i] = date;
+                    values[i] = random.nextInt(100);
+                    expected.append(dates[i], values[i]);
+                }
+                actual.appendAll(dates, values);
+
+                Assertions.assertEquals(expected.toMap(), actual.toMap());
+            }
+        }
+    }
+
+    @Test
+    public void testAppendAllRejectsUnorderedBatchAtomically() {
+        LongTimeSeries series = new LongTimeSeries(5, ChronoUnit.MINUTES, Long::sum, Clock.systemUTC());
+        series.append(120_000L, 1);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> series.appendAll(new long[] {180_000L, 60_000L}, new long[] {1, 2}));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> series.appendAll(new long[] {0L}, new long[] {1}));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> series.appendAll(new long[] {0L}, new long[] {1, 2}));
+        Assertions.assertEquals(1, series.size());
+    }
+
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class MappedTimeSeriesStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testPointsAreReadBackInRange() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 4)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(i * 10L, (long) i);
+            }
+
+            Assertions.assertEquals(10, store.size());
+            Assertions.assertEquals(3, store.getSegmentCount());
+            Assertions.assertEquals(0, store.firstEpochMilli());
+            Assertions.assertEquals(90, store.lastEpochMilli());
+
+            Assertions.assertEquals(List.of(3L, 4L, 5L, 6L), read(store, 25, 70));
+            Assertions.assertEquals(List.of(0L, 1L), read(store, Long.MIN_VALUE, 20));
+            Assertions.assertEquals(List.of(9L), read(store, 90, Long.MAX_VALUE));
+            Assertions.assertEquals(List.of(), read(store, 91, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void testEqualTimestampsAcrossSegmentsAreRead() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 2)) {
+            store.append(1, 1L);
+            store.append(5, 2L);
+            store.append(5, 3L);
+            store.append(7, 4L);
+
+            Assertions.assertEquals(List.of(2L, 3L), read(store, 5, 6));
+        }
+    }
+
+    @Test
+    public void testOutOfOrderAppendIsRejected() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            store.append(10, 1L);
+
+            assertThrows(IllegalArgumentException.class, () -> store.append(9, 2L));
+        }
+    }
+
+    @Test
+    public void testStoreIsReopened() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 3)) {
+            for (int i = 0; i < 7; i++) {
+                store.append(i, (long) i);
+            }
+        }
+
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 3)) {
+            Assertions.assertEquals(7, store.size());
+            store.append(7, 7L);
+            Assertions.assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), read(store, 0, 100));
+        }
+    }
+
+    @Test
+    public void testTornTailIsDiscardedOnRecovery() throws IOException {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 8)) {
+            for (int i = 0; i < 5; i++) {
+                store.append(i, (long) i);
+            }
+            store.force();
+        }
+
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 3L * MappedTimeSeriesStore.RECORD_SIZE + 9);
+        }
+
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 8)) {
+            Assertions.assertEquals(3, store.size());
+            store.append(10, 10L);
+            Assertions.assertEquals(List.of(0L, 1L, 2L, 10L), read(store, 0, 100));
+        }
+
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 8)) {
+            Assertions.assertEquals(4, store.size());
+        }
+    }
+
+    @Test
+    public void testOnlyLastSegmentIsScannedOnRecovery() throws IOException {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 4)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(i, (long) i);
+            }
+        }
+
+        // a sealed segment is trusted by its first and last records
+        Path sealed = segments().get(0);
+        try (FileChannel channel = FileChannel.open(sealed, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), MappedTimeSeriesStore.RECORD_SIZE + 9);
+        }
+
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 4)) {
+            Assertions.assertEquals(10, store.size());
+            Assertions.assertEquals(3, store.getSegmentCount());
+        }
+
+        Path last = segments().get(1);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 3L * MappedTimeSeriesStore.RECORD_SIZE + 9);
+        }
+
+        // a sealed segment with a torn last record is scanned and ends the store
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 4)) {
+            Assertions.assertEquals(7, store.size());
+            Assertions.assertEquals(2, store.getSegmentCount());
+            Assertions.assertEquals(6, store.lastEpochMilli());
+        }
+    }
+
+    @Test
+    public void testTruncateBeforeDeletesOldSegments() throws IOException {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory, 2)) {
+            for (int i = 0; i < 6; i++) {
+                store.append(i, (long) i);
+            }
+
+            Assertions.assertEquals(2, store.truncateBefore(3));
+            Assertions.assertEquals(4, store.size());
+            Assertions.assertEquals(2, store.firstEpochMilli());
+            Assertions.assertEquals(2, segments().size());
+        }
+    }
+
+    @Test
+    public void testSeriesIsLoaded() {
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        long startMilli = start.toInstant(ZoneOffset.UTC).toEpochMilli();
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            for (int i = 0; i < 120; i++) {
+                store.append(startMilli + i * 1000L, 0.5);
+            }
+
+            DoubleTimeSeries series = new DoubleTimeSeries(
+                    5,
+                    ChronoUnit.MINUTES,
+                    Double::sum,
+                    Clock.systemUTC());
+            store.load(series, Long.MIN_VALUE, Long.MAX_VALUE);
+
+            Assertions.assertEquals(2, series.size());
+            Assertions.assertEquals(30.0, series.value(start).getAsDouble());
+        }
+    }
+
+    @Test
+    public void testClosedStoreIsRejected() {
+        MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory);
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.append(1, 1L));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<Long> read(MappedTimeSeriesStore store, long from, long to) {
+        List<Long> values = new ArrayList<>();
+        store.forEach(from, to, (epochMilli, value) -> values.add(value));
+        return values;
+    }
+
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class MergeFunctionTest {
+
+    @Test
+    public void testLongMergeFunctions() {
+        Assertions.assertEquals(5, LongMergeFunction.add().applyAsLong(2, 3));
+        Assertions.assertEquals(2, LongMergeFunction.min().applyAsLong(2, 3));
+        Assertions.assertEquals(3, LongMergeFunction.max().applyAsLong(2, 3));
+        Assertions.assertEquals(3, LongMergeFunction.replace().applyAsLong(2, 3));
+        Assertions.assertEquals(5L, LongMergeFunction.add().apply(2L, 3L));
+        Assertions.assertSame(MergeFunction.addLong(), LongMergeFunction.add());
+    }
+
+    @Test
+    public void testDoubleMergeFunctions() {
+        Assertions.assertEquals(5.5, DoubleMergeFunction.add().applyAsDouble(2, 3.5));
+        Assertions.assertEquals(2, DoubleMergeFunction.min().applyAsDouble(2, 3.5));
+        Assertions.assertEquals(3.5, DoubleMergeFunction.max().applyAsDouble(2, 3.5));
+        Assertions.assertEquals(3.5, DoubleMergeFunction.replace().applyAsDouble(2, 3.5));
+        Assertions.assertEquals(5.5, DoubleMergeFunction.add().apply(2.0, 3.5));
+        Assertions.assertSame(MergeFunction.addDouble(), DoubleMergeFunction.add());
+    }
+
+    @Test
+    public void testComparableMergeFunctions() {
+        Assertions.assertEquals("a", MergeFunction.<String>min().apply("b", "a"));
+        Assertions.assertEquals("b", MergeFunction.<String>max().apply("b", "a"));
+    }
+
+    @Test
+    public void testPrimitiveMergeFunctionsAreUsableBySeries() {
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+        LongTimeSeries longs = new LongTimeSeries(ChronoUnit.HOURS, LongMergeFunction.max());
+        longs.append(start, 3);
+        longs.append(start.plusMinutes(1), 7);
+        longs.append(start.plusMinutes(2), 5);
+
+        TimeSeries<Double> doubles = new TimeSeries<>(ChronoUnit.HOURS, DoubleMergeFunction.min());
+        doubles.append(start, 3.0);
+        doubles.append(start.plusMinutes(1), 1.0);
+        doubles.append(start.plusMinutes(2), 2.0);
+
+        Assertions.assertEquals(7, longs.lastValue().getAsLong());
+        Assertions.assertEquals(1.0, doubles.lastValue());
+    }
+
+    @Test
+    public void testInPlaceMergeFunctionsCopyValues() {
+        Stats stats = Stats.of(1);
+        Stats copy = MergeFunction.stats().copy(stats);
+        MergeFunction.stats().apply(copy, Stats.of(2));
+
+        Assertions.assertNotSame(stats, copy);
+        Assertions.assertEquals(1, stats.getCount());
+        Assertions.assertEquals(2, copy.getCount());
+        HyperLogLog hyperLogLog = new HyperLogLog().add(1);
+        MergeFunction.hyperLogLog().copy(hyperLogLog).add(2);
+        Assertions.assertEquals(1, hyperLogLog.estimate());
+        Assertions.assertEquals(1, MergeFunction.<String>topKSketch().copy(new TopKSketch<String>(2).add("a")).count("a"));
+        Assertions.assertEquals(1, MergeFunction.quantileSketch().copy(new QuantileSketch(10).record(1)).getCount());
+
+        Long value = 1L;
+        Assertions.assertSame(value, MergeFunction.addLong().copy(value));
+    }
+
+    @Test
+    public void testCopiesAreNotAffectedByInPlaceMerges() {
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        TimeSeries<Stats> series = new TimeSeries<>(ChronoUnit.HOURS, MergeFunction.stats());
+        series.append(start, Stats.of(1));
+
+        TimeSeries<Stats> copy = series.copy();
+        TimeSeries<Stats> unmodifiableCopy = series.unmodifiableCopy();
+        series.append(start, Stats.of(2));
+        series.appendAll(List.of(Map.entry(start, Stats.of(3))).iterator());
+        series.computeIfAbsent(start, Stats::new).add(4);
+        copy.append(start, Stats.of(5));
+
+        Assertions.assertEquals(4, series.value(start).getCount());
+        Assertions.assertEquals(2, copy.value(start).getCount());
+        Assertions.assertEquals(1, unmodifiableCopy.value(start).getCount());
+    }
+
+    @Test
+    public void testOnlyMergedValuesAreCopied() {
+        AtomicInteger copies = new AtomicInteger();
+        MergeFunction<Stats> counting = new MergeFunction<>() {
+
+            @Override
+            public Stats apply(Stats oldValue, Stats newValue) {
+                return MergeFunction.stats().apply(oldValue, newValue);
+            }
+
+            @Override
+            public Stats copy(Stats value) {
+                copies.incrementAndGet();
+                return MergeFunction.stats().copy(value);
+            }
+
+        };
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        TimeSeries<Stats> series = new TimeSeries<>(100, ChronoUnit.MINUTES, counting);
+        for (int i = 0; i < 100; i++) {
+            series.append(start.plusMinutes(i), Stats.of(i));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            series.copy();
+            series.stream().count();
+            series.append(start.plusMinutes(99), Stats.of(i));
+            series.computeIfAbsent(start.plusMinutes(98), Stats::new).add(i);
+        }
+
+        Assertions.assertEquals(20, copies.get());
+        Assertions.assertEquals(11, series.lastValue().getCount());
+    }
+
+}
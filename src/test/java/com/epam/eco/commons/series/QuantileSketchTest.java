@@ -0,0 +1,140 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class QuantileSketchTest {
+
+    @Test
+    public void testSmallValuesAreExact() {
+        QuantileSketch sketch = new QuantileSketch(1000);
+        for (int i = 1; i <= 100; i++) {
+            sketch.record(i);
+        }
+
+        Assertions.assertEquals(100, sketch.getCount());
+        Assertions.assertEquals(1, sketch.quantile(0));
+        Assertions.assertEquals(50, sketch.quantile(0.5));
+        Assertions.assertEquals(99, sketch.quantile(0.99));
+        Assertions.assertEquals(100, sketch.quantile(1));
+        Assertions.assertEquals(50.5, sketch.getMean());
+    }
+
+    @Test
+    public void testQuantilesAreWithinRelativeError() {
+        QuantileSketch sketch = new QuantileSketch(3_600_000_000L, 7);
+        Random random = new Random(3);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextGaussian() * 2 + 10);
+            sketch.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[] {0.01, 0.25, 0.5, 0.9, 0.99, 0.999}) {
+            long expected = values[(int) Math.ceil(quantile * values.length) - 1];
+            long actual = sketch.quantile(quantile);
+            Assertions.assertEquals(expected, actual, expected / 64.0 + 1, "Quantile " + quantile);
+        }
+        Assertions.assertEquals(values[values.length - 1], sketch.getMax());
+        Assertions.assertEquals(values[0], sketch.getMin());
+    }
+
+    @Test
+    public void testSketchesAreMerged() {
+        QuantileSketch first = new QuantileSketch(1_000_000);
+        QuantileSketch second = new QuantileSketch(1_000_000);
+        QuantileSketch all = new QuantileSketch(1_000_000);
+        for (int i = 0; i < 1000; i++) {
+            first.record(i * 7L);
+            second.record(i * 13L + 5);
+            all.record(i * 7L);
+            all.record(i * 13L + 5);
+        }
+
+        QuantileSketch merged = first.copy().merge(second);
+
+        Assertions.assertEquals(1000, first.getCount());
+        Assertions.assertEquals(2000, merged.getCount());
+        for (double quantile : new double[] {0, 0.1, 0.5, 0.95, 1}) {
+            Assertions.assertEquals(all.quantile(quantile), merged.quantile(quantile));
+        }
+        Assertions.assertEquals(0, merged.getMin());
+        Assertions.assertEquals(999 * 13 + 5, merged.getMax());
+        Assertions.assertSame(merged, merged.merge(new QuantileSketch(1_000_000)));
+    }
+
+    @Test
+    public void testValuesAboveHighestAreClamped() {
+        QuantileSketch sketch = new QuantileSketch(1000);
+        sketch.record(Long.MAX_VALUE);
+
+        Assertions.assertEquals(1000, sketch.getMax());
+        Assertions.assertEquals(1000, sketch.quantile(1));
+    }
+
+    @Test
+    public void testEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch(Long.MAX_VALUE);
+
+        Assertions.assertTrue(sketch.isEmpty());
+        Assertions.assertEquals(0, sketch.quantile(0.5));
+        Assertions.assertTrue(Double.isNaN(sketch.getMean()));
+    }
+
+    @Test
+    public void testSeriesOfSketchesAnswersWindowQueries() {
+        TimeSeries<QuantileSketch> series = new TimeSeries<>(
+                10, ChronoUnit.MINUTES, MergeFunction.quantileSketch());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 300; i++) {
+            series.computeIfAbsent(start.plusSeconds(i), () -> new QuantileSketch(10_000)).record(i);
+        }
+
+        QuantileSketch window = new QuantileSketch(10_000);
+        series.subSeries(start.plusMinutes(1), start.plusMinutes(3))
+                .forEach(entry -> window.merge(entry.getValue()));
+
+        Assertions.assertEquals(5, series.size());
+        Assertions.assertEquals(60, series.value(start).getCount());
+        Assertions.assertEquals(120, window.getCount());
+        Assertions.assertEquals(60, window.getMin());
+        Assertions.assertEquals(179, window.getMax());
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments() {
+        QuantileSketch sketch = new QuantileSketch(1000);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(2000)));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(1000, 0));
+    }
+
+}
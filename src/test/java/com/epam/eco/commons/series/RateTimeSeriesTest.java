@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.OptionalDouble;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class RateTimeSeriesTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private static final Clock CLOCK = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+    @Test
+    public void testRatesAreComputedOnAppend() {
+        RateTimeSeries series = new RateTimeSeries(10, ChronoUnit.MINUTES, CLOCK);
+
+        series.append(START, 100);
+        Assertions.assertEquals(0, series.size());
+        Assertions.assertEquals(OptionalDouble.empty(), series.lastRate());
+
+        for (int i = 1; i <= 11; i++) {
+            series.append(START.plusSeconds(i * 10), 100 + i * 50);
+        }
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals(5.0, series.rate(START).getAsDouble());
+        Assertions.assertEquals(5.0, series.lastRate().getAsDouble());
+        Assertions.assertEquals(250.0, series.increase(START).getAsDouble());
+        Assertions.assertEquals(OptionalDouble.of(650), series.lastCounter());
+        Assertions.assertEquals(OptionalDouble.empty(), series.rate(START.plusMinutes(5)));
+    }
+
+    @Test
+    public void testRateIsWeightedByElapsedTime() {
+        RateTimeSeries series = new RateTimeSeries(10, ChronoUnit.MINUTES, CLOCK);
+
+        series.append(START, 0);
+        series.append(START.plusSeconds(10), 100);
+        series.append(START.plusSeconds(40), 130);
+
+        Assertions.assertEquals(130 / 40.0, series.rate(START).getAsDouble(), 1e-9);
+    }
+
+    @Test
+    public void testCounterResetIsDetected() {
+        RateTimeSeries series = new RateTimeSeries(10, ChronoUnit.MINUTES, CLOCK);
+
+        series.append(START, 1000);
+        series.append(START.plusSeconds(10), 1100);
+        series.append(START.plusSeconds(20), 40);
+        series.append(START.plusSeconds(30), 90);
+
+        Assertions.assertEquals(1, series.getResetCount());
+        Assertions.assertEquals(190, series.increase(START).getAsDouble());
+        Assertions.assertEquals(190 / 30.0, series.rate(START).getAsDouble(), 1e-9);
+    }
+
+    @Test
+    public void testEpochMillisAreBucketedByClockZone() {
+        RateTimeSeries series = new RateTimeSeries(10, ChronoUnit.HOURS, Clock.system(ZoneOffset.ofHours(3)));
+        long date = START.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        series.append(date, 0);
+        series.append(date + 3_600_000, 3600);
+
+        Assertions.assertEquals(START.plusHours(4), series.lastKey());
+        Assertions.assertEquals(1.0, series.lastRate().getAsDouble());
+        Assertions.assertEquals(1, series.toMap().size());
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments() {
+        RateTimeSeries series = new RateTimeSeries(10, ChronoUnit.MINUTES, CLOCK);
+        series.append(START, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> series.append(START.minusSeconds(1), 2));
+        assertThrows(IllegalArgumentException.class, () -> series.append(START, Double.NaN));
+    }
+
+}
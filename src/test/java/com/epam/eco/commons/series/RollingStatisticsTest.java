@@ -0,0 +1,136 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class RollingStatisticsTest {
+
+    @Test
+    public void testStatisticsMaintained() {
+        TimeSeries<Long> series = new TimeSeries<>(10, MergeFunction.addLong());
+        RollingStatistics<Long> statistics = new RollingStatistics<>(series, 3, Long::doubleValue);
+
+        Assertions.assertEquals(0, statistics.count());
+        Assertions.assertTrue(Double.isNaN(statistics.average()));
+        Assertions.assertTrue(Double.isNaN(statistics.max()));
+
+        LocalDateTime now = LocalDateTime.now();
+
+        series.append(now, 5L);
+        series.append(now, 1L);
+        Assertions.assertEquals(1, statistics.count());
+        Assertions.assertEquals(6, statistics.sum());
+        Assertions.assertEquals(6, statistics.min());
+        Assertions.assertEquals(6, statistics.max());
+
+        series.append(now.plusMinutes(1), 2L);
+        series.append(now.plusMinutes(2), 9L);
+        Assertions.assertEquals(3, statistics.count());
+        Assertions.assertEquals(17, statistics.sum());
+        Assertions.assertEquals(2, statistics.min());
+        Assertions.assertEquals(9, statistics.max());
+
+        series.append(now.plusMinutes(3), 4L);
+        Assertions.assertEquals(3, statistics.count());
+        Assertions.assertEquals(15, statistics.sum());
+        Assertions.assertEquals(5, statistics.average());
+        Assertions.assertEquals(2, statistics.min());
+
+        series.append(now.plusMinutes(4), 7L);
+        Assertions.assertEquals(4, statistics.min());
+        Assertions.assertEquals(9, statistics.max());
+    }
+
+    @Test
+    public void testStatisticsFollowEviction() {
+        TimeSeries<Long> series = new TimeSeries<>(2);
+
+        LocalDateTime now = LocalDateTime.now();
+        series.append(now, 3L);
+
+        RollingStatistics<Long> statistics = new RollingStatistics<>(series, 5, Long::doubleValue);
+        Assertions.assertEquals(1, statistics.count());
+
+        series.append(now.plusMinutes(1), 1L);
+        series.append(now.plusMinutes(2), 2L);
+
+        Assertions.assertEquals(2, statistics.count());
+        Assertions.assertEquals(3, statistics.sum());
+        Assertions.assertEquals(2, statistics.max());
+
+        statistics.detach();
+        series.append(now.plusMinutes(3), 100L);
+        Assertions.assertEquals(3, statistics.sum());
+    }
+
+    @Test
+    public void testStatisticsMatchRecomputed() {
+        TimeSeries<Long> series = new TimeSeries<>(50, MergeFunction.addLong());
+        RollingStatistics<Long> statistics = new RollingStatistics<>(series, 20, Long::doubleValue);
+
+        Random random = new Random(42);
+        LocalDateTime date = LocalDateTime.now();
+        for (int i = 0; i < 1000; i++) {
+            date = date.plusSeconds(random.nextInt(90));
+            series.append(date, (long) random.nextInt(1000) - 500);
+
+            List<Long> window = new ArrayList<>(series.toMap().values());
+            window = window.subList(Math.max(0, window.size() - 20), window.size());
+
+            Assertions.assertEquals(window.size(), statistics.count());
+            Assertions.assertEquals(window.stream().mapToLong(Long::longValue).sum(), statistics.sum(), 1e-6);
+            Assertions.assertEquals(window.stream().mapToLong(Long::longValue).min().getAsLong(), statistics.min());
+            Assertions.assertEquals(window.stream().mapToLong(Long::longValue).max().getAsLong(), statistics.max());
+        }
+    }
+
+    @Test
+    public void testStatisticsFollowRemovedBuckets() {
+        MergeFunction<Long> cancel = (oldValue, newValue) -> oldValue + newValue != 0 ? oldValue + newValue : null;
+        TimeSeries<Long> series = new TimeSeries<>(10, cancel);
+        RollingStatistics<Long> statistics = new RollingStatistics<>(series, 2, Long::doubleValue);
+
+        LocalDateTime now = LocalDateTime.now();
+        series.append(now, 1L);
+        series.append(now.plusMinutes(1), 2L);
+        series.append(now.plusMinutes(2), 4L);
+        series.append(now.plusMinutes(2), -4L);
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals(2, statistics.count());
+        Assertions.assertEquals(3, statistics.sum());
+        Assertions.assertEquals(1, statistics.min());
+        Assertions.assertEquals(2, statistics.max());
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments() {
+        assertThrows(Exception.class, () -> new RollingStatistics<>(new TimeSeries<Long>(), 0, Long::doubleValue));
+    }
+
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class StatsTest {
+
+    @Test
+    public void testValuesAreSummarized() {
+        Stats stats = new Stats();
+
+        Assertions.assertEquals(0, stats.getCount());
+        Assertions.assertTrue(Double.isNaN(stats.getMean()));
+        Assertions.assertTrue(Double.isNaN(stats.getMin()));
+
+        stats.add(2).add(4).add(4).add(4).add(5).add(5).add(7).add(9);
+
+        Assertions.assertEquals(8, stats.getCount());
+        Assertions.assertEquals(40, stats.getSum());
+        Assertions.assertEquals(2, stats.getMin());
+        Assertions.assertEquals(9, stats.getMax());
+        Assertions.assertEquals(5, stats.getMean());
+        Assertions.assertEquals(4, stats.getVariance(), 1e-9);
+    }
+
+    @Test
+    public void testStatsAreMergedInPlace() {
+        Stats stats = Stats.of(1).add(3);
+        Stats copy = stats.copy();
+
+        Stats merged = MergeFunction.stats().apply(stats, Stats.of(-1).add(10));
+
+        Assertions.assertSame(stats, merged);
+        Assertions.assertEquals(4, stats.getCount());
+        Assertions.assertEquals(-1, stats.getMin());
+        Assertions.assertEquals(10, stats.getMax());
+        Assertions.assertEquals(2, copy.getCount());
+    }
+
+    @Test
+    public void testSeriesOfStatsIsUpdatedInPlace() {
+        TimeSeries<Stats> series = new TimeSeries<>(5, ChronoUnit.MINUTES, MergeFunction.stats());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+        for (int i = 0; i < 120; i++) {
+            series.computeIfAbsent(start.plusSeconds(i), Stats::new).add(i);
+        }
+        series.append(start.plusMinutes(1), Stats.of(1000));
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals(60, series.value(start).getCount());
+        Assertions.assertEquals(29.5, series.value(start).getMean());
+        Assertions.assertEquals(61, series.lastValue().getCount());
+        Assertions.assertEquals(1000, series.lastValue().getMax());
+    }
+
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TieredTimeSeriesTest {
+
+    @Test
+    public void testEvictedBucketsFolded() {
+        TieredTimeSeries<Long> series = new TieredTimeSeries<>(List.of(
+                new TimeSeries<>(60, ChronoUnit.SECONDS, MergeFunction.addLong()),
+                new TimeSeries<>(60, ChronoUnit.MINUTES, MergeFunction.addLong()),
+                new TimeSeries<>(24, ChronoUnit.HOURS, MergeFunction.addLong())));
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 2 * 3600; i++) {
+            series.append(start.plusSeconds(i), 1L);
+        }
+
+        Assertions.assertEquals(3, series.getTierCount());
+        Assertions.assertEquals(60, series.tier(0).size());
+        Assertions.assertEquals(60, series.tier(1).size());
+        Assertions.assertEquals(1, series.tier(2).size());
+
+        Assertions.assertEquals(Long.valueOf(3600 - 60), series.tier(2).value(start));
+        Assertions.assertEquals(Long.valueOf(60), series.tier(1).value(start.plusMinutes(61)));
+        Assertions.assertNull(series.tier(1).value(start.plusMinutes(119)));
+
+        Assertions.assertEquals(Long.valueOf(3600), series.value(2, start));
+        Assertions.assertEquals(Long.valueOf(3600), series.value(2, start.plusMinutes(90)));
+        Assertions.assertEquals(Long.valueOf(60), series.value(1, start.plusMinutes(119)));
+
+        TimeSeries<Long> rollup = series.rollup(2);
+        Assertions.assertEquals(2, rollup.size());
+        Assertions.assertEquals(Long.valueOf(3600), rollup.value(start));
+        Assertions.assertEquals(Long.valueOf(3600), rollup.value(start.plusHours(1)));
+    }
+
+    @Test
+    public void testReadsDoNotChangeTiers() {
+        TieredTimeSeries<Stats> series = new TieredTimeSeries<>(List.of(
+                new TimeSeries<>(2, ChronoUnit.SECONDS, MergeFunction.stats()),
+                new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.stats())));
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 4; i++) {
+            series.append(start.plusSeconds(i), Stats.of(i));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(4, series.value(1, start).getCount());
+            Assertions.assertEquals(4, series.rollup(1).value(start).getCount());
+        }
+        Assertions.assertEquals(2, series.tier(1).value(start).getCount());
+        Assertions.assertEquals(1, series.tier(0).value(start.plusSeconds(3)).getCount());
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments1() {
+        assertThrows(Exception.class, () -> new TieredTimeSeries<Long>(List.of()));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments2() {
+        assertThrows(Exception.class, () -> new TieredTimeSeries<>(List.of(
+                new TimeSeries<Long>(ChronoUnit.HOURS),
+                new TimeSeries<Long>(ChronoUnit.MINUTES))));
+    }
+
+    @Test
+    public void testFailsOnIllegalArguments3() {
+        assertThrows(Exception.class, () -> {
+            TimeSeries<Long> tier = new TimeSeries<>(ChronoUnit.MINUTES);
+            tier.append(1L);
+
+            new TieredTimeSeries<>(List.of(tier, new TimeSeries<>(ChronoUnit.HOURS)));
+        });
+    }
+
+}
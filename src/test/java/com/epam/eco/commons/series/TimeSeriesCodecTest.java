@@ -0,0 +1,143 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesCodecTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    public void testLongTimeSeriesRoundTrip() {
+        LongTimeSeries series = new LongTimeSeries(100, ChronoUnit.SECONDS);
+        Random random = new Random(42);
+        LocalDateTime date = START;
+        for (int i = 0; i < 100; i++) {
+            date = date.plusSeconds(1 + random.nextInt(i % 10 == 0 ? 5000 : 3));
+            series.append(date, random.nextLong() >> random.nextInt(64));
+        }
+        series.append(date.plusSeconds(1), Long.MIN_VALUE);
+        series.append(date.plusSeconds(2), Long.MAX_VALUE);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesCodec.maxEncodedSize(series.size()));
+        TimeSeriesCodec.encode(series, buffer);
+        buffer.flip();
+        LongTimeSeries decoded = TimeSeriesCodec.decodeLongTimeSeries(buffer);
+
+        Assertions.assertEquals(series.toMap(), decoded.toMap());
+        Assertions.assertEquals(ChronoUnit.SECONDS, decoded.getGranularity());
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testDoubleTimeSeriesRoundTrip() {
+        DoubleTimeSeries series = new DoubleTimeSeries(50, ChronoUnit.MINUTES);
+        Random random = new Random(7);
+        for (int i = 0; i < 47; i++) {
+            series.append(START.plusMinutes(i * 2), random.nextGaussian() * 1000);
+        }
+        series.append(START.plusMinutes(100), Double.NaN);
+        series.append(START.plusMinutes(101), -0.0);
+        series.append(START.plusMinutes(102), Double.POSITIVE_INFINITY);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesCodec.maxEncodedSize(series.size()));
+        TimeSeriesCodec.encode(series, buffer);
+        buffer.flip();
+        DoubleTimeSeries decoded = TimeSeriesCodec.decodeDoubleTimeSeries(buffer);
+
+        Assertions.assertEquals(series.size(), decoded.size());
+        for (int i = 0; i < series.size(); i++) {
+            Assertions.assertEquals(series.keyAt(i), decoded.keyAt(i));
+            Assertions.assertEquals(
+                    Double.doubleToRawLongBits(series.valueAt(i)),
+                    Double.doubleToRawLongBits(decoded.valueAt(i)));
+        }
+    }
+
+    @Test
+    public void testRegularSeriesIsCompact() {
+        LongTimeSeries series = new LongTimeSeries(1000, ChronoUnit.SECONDS);
+        for (int i = 0; i < 1000; i++) {
+            series.append(START.plusSeconds(i), 42);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesCodec.maxEncodedSize(series.size()));
+        TimeSeriesCodec.encode(series, buffer);
+
+        Assertions.assertTrue(buffer.position() < 300, "Encoded size " + buffer.position());
+    }
+
+    @Test
+    public void testEmptySeriesRoundTrip() {
+        DoubleTimeSeries series = new DoubleTimeSeries(5, ChronoUnit.HOURS);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesCodec.maxEncodedSize(0));
+        TimeSeriesCodec.encode(series, buffer);
+        buffer.flip();
+        DoubleTimeSeries decoded = TimeSeriesCodec.decodeDoubleTimeSeries(buffer);
+
+        Assertions.assertEquals(0, decoded.size());
+        Assertions.assertEquals(ChronoUnit.HOURS, decoded.getGranularity());
+    }
+
+    @Test
+    public void testTimeSeriesRoundTrip() {
+        TimeSeries<Long> longs = new TimeSeries<>(10, ChronoUnit.HOURS, MergeFunction.addLong());
+        TimeSeries<Double> doubles = new TimeSeries<>(10, ChronoUnit.HOURS, MergeFunction.addDouble());
+        for (int i = 0; i < 12; i++) {
+            longs.append(START.plusHours(i * 3), (long) i * i);
+            doubles.append(START.plusHours(i * 3), i / 3.0);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+                TimeSeriesCodec.maxEncodedSize(longs.size()) + TimeSeriesCodec.maxEncodedSize(doubles.size()));
+        TimeSeriesCodec.encodeLongs(longs, buffer);
+        TimeSeriesCodec.encodeDoubles(doubles, buffer);
+        buffer.flip();
+
+        TimeSeries<Long> decodedLongs = TimeSeriesCodec.decodeLongs(buffer, MergeFunction.addLong());
+        TimeSeries<Double> decodedDoubles = TimeSeriesCodec.decodeDoubles(buffer, MergeFunction.addDouble());
+
+        Assertions.assertEquals(longs.toMap(), decodedLongs.toMap());
+        Assertions.assertEquals(doubles.toMap(), decodedDoubles.toMap());
+        Assertions.assertEquals(10, decodedLongs.getMaxSize());
+    }
+
+    @Test
+    public void testTypeMismatchIsRejected() {
+        LongTimeSeries series = new LongTimeSeries();
+        series.append(START, 1);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesCodec.maxEncodedSize(series.size()));
+        TimeSeriesCodec.encode(series, buffer);
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> TimeSeriesCodec.decodeDoubleTimeSeries(buffer));
+    }
+
+}
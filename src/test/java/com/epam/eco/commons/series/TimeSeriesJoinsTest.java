@@ -0,0 +1,151 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesJoinsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    public void testSeriesAreZipped() {
+        TimeSeries<Double> errors = series(0, 2.0, null, 6.0, 1.0);
+        TimeSeries<Double> requests = series(0, 10.0, 20.0, 30.0, 0.0);
+
+        TimeSeries<Double> inner = TimeSeriesJoins.zip(
+                errors, requests, JoinType.INNER, (e, r) -> r != 0 ? e / r : null);
+        TimeSeries<Double> outer = TimeSeriesJoins.zip(
+                errors, requests, JoinType.OUTER, (e, r) -> e == null ? 0.0 : e / r);
+
+        Assertions.assertEquals(Map.of(START, 0.2, START.plusMinutes(2), 0.2), inner.toMap());
+        Assertions.assertEquals(0.0, outer.value(START.plusMinutes(1)));
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, outer.value(START.plusMinutes(3)));
+        Assertions.assertEquals(4, outer.size());
+    }
+
+    @Test
+    public void testSeriesAreJoined() {
+        TimeSeries<Double> first = series(0, 1.0, 2.0, 3.0);
+        TimeSeries<Double> second = series(1, 10.0, 20.0, 30.0);
+        TimeSeries<Double> third = series(2, 100.0);
+
+        TimeSeries<String> inner = TimeSeriesJoins.join(
+                List.of(first, second, third), JoinType.INNER, values -> values.toString());
+        TimeSeries<String> outer = TimeSeriesJoins.join(
+                List.of(first, second, third), JoinType.OUTER, values -> values.toString());
+
+        Assertions.assertEquals(Map.of(START.plusMinutes(2), "[3.0, 20.0, 100.0]"), inner.toMap());
+        Assertions.assertEquals(4, outer.size());
+        Assertions.assertEquals("[1.0, null, null]", outer.firstValue());
+        Assertions.assertEquals("[null, 30.0, null]", outer.lastValue());
+    }
+
+    @Test
+    public void testSeriesAreAggregated() {
+        List<TimeSeries<Long>> series = new ArrayList<>();
+        Map<LocalDateTime, Long> expected = new TreeMap<>();
+        for (int i = 0; i < 500; i++) {
+            TimeSeries<Long> single = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.addLong());
+            for (int j = 0; j < 10; j++) {
+                if ((i + j) % 7 != 0) {
+                    single.append(START.plusMinutes(i % 3 + j), (long) i * j);
+                    expected.merge(START.plusMinutes(i % 3 + j), (long) i * j, Long::sum);
+                }
+            }
+            series.add(single);
+        }
+
+        TimeSeries<Long> aggregated = TimeSeriesJoins.aggregate(series, MergeFunction.addLong());
+
+        Assertions.assertEquals(10, aggregated.getMaxSize());
+        Assertions.assertEquals(10, aggregated.size());
+        Assertions.assertEquals(new TreeMap<>(expected).tailMap(START.plusMinutes(2)), aggregated.toMap());
+        Assertions.assertSame(MergeFunction.addLong(), aggregated.getMergeFunction());
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TimeSeries<Long> aggregatedOnPool = TimeSeriesJoins.aggregate(pool, series, MergeFunction.addLong());
+
+            Assertions.assertEquals(aggregated.toMap(), aggregatedOnPool.toMap());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testAggregateDoesNotChangeInputs() {
+        TimeSeries<HyperLogLog> first = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.hyperLogLog());
+        TimeSeries<HyperLogLog> second = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.hyperLogLog());
+        HyperLogLog firstValues = new HyperLogLog();
+        HyperLogLog secondValues = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            firstValues.add(i);
+            secondValues.add(i + 100);
+        }
+        first.append(START, firstValues);
+        second.append(START, secondValues);
+        long firstEstimate = firstValues.estimate();
+        long secondEstimate = secondValues.estimate();
+
+        for (int i = 0; i < 2; i++) {
+            TimeSeries<HyperLogLog> aggregated =
+                    TimeSeriesJoins.aggregate(List.of(first, second), MergeFunction.hyperLogLog());
+
+            Assertions.assertEquals(200, aggregated.value(START).estimate(), 10);
+        }
+        Assertions.assertEquals(firstEstimate, first.value(START).estimate());
+        Assertions.assertEquals(secondEstimate, second.value(START).estimate());
+    }
+
+    @Test
+    public void testFailsOnDifferentGranularities() {
+        TimeSeries<Double> minutes = series(0, 1.0);
+        TimeSeries<Double> hours = new TimeSeries<>(ChronoUnit.HOURS);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeSeriesJoins.zip(minutes, hours, JoinType.OUTER, (a, b) -> a));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeSeriesJoins.join(List.<TimeSeries<Double>>of(), JoinType.OUTER, values -> 1));
+    }
+
+    private static TimeSeries<Double> series(int offset, Double... values) {
+        TimeSeries<Double> series = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.addDouble());
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                series.append(START.plusMinutes(offset + i), values[i]);
+            }
+        }
+        return series;
+    }
+
+}
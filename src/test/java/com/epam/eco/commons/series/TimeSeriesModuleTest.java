@@ -0,0 +1,139 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.epam.eco.commons.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesModuleTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, Month.MARCH, 1, 10, 0);
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new TimeSeriesModule());
+
+    @Test
+    public void testLongTimeSeriesIsWrittenInColumns() throws Exception {
+        LongTimeSeries series = new LongTimeSeries(10, ChronoUnit.MINUTES);
+        series.append(DATE, 1);
+        series.append(DATE.plusMinutes(1), 2);
+        series.append(DATE.plusMinutes(3), 4);
+
+        String json = mapper.writeValueAsString(series);
+
+        long start = BucketIndexer.of(ChronoUnit.MINUTES).index(DATE);
+        Assertions.assertEquals(
+                "{\"granularity\":\"PT1M\",\"maxSize\":10,\"start\":" + start + ",\"values\":[1,2,null,4]}",
+                json);
+
+        LongTimeSeries result = mapper.readValue(json, LongTimeSeries.class);
+        Assertions.assertEquals(series.toMap(), result.toMap());
+        Assertions.assertEquals(ChronoUnit.MINUTES, result.getGranularity());
+    }
+
+    @Test
+    public void testSparseSeriesIsWrittenWithSteps() throws Exception {
+        DoubleTimeSeries series = new DoubleTimeSeries(10, DurationUnit.ofMinutes(5));
+        series.append(DATE, 1.5);
+        series.append(DATE.plusHours(1), Double.NaN);
+        series.append(DATE.plusDays(1), -2.0);
+
+        String json = mapper.writeValueAsString(series);
+
+        Map<String, Object> map = JsonMapper.jsonToMap(json);
+        Assertions.assertEquals("PT5M", map.get("granularity"));
+        Assertions.assertEquals(List.of(0, 12, 276), map.get("steps"));
+
+        DoubleTimeSeries result = mapper.readValue(json, DoubleTimeSeries.class);
+        Assertions.assertEquals(series.toMap(), result.toMap());
+        Assertions.assertEquals(DurationUnit.ofMinutes(5), result.getGranularity());
+    }
+
+    @Test
+    public void testTimeSeriesIsReadWithValueType() throws Exception {
+        TimeSeries<Long> series = new TimeSeries<>(5, ChronoUnit.HOURS, MergeFunctions.ADD_LONG);
+        series.append(DATE, 1L);
+        series.append(DATE, 3L);
+        series.append(DATE.plusHours(2), 5L);
+
+        String json = mapper.writeValueAsString(series);
+
+        TimeSeries<Long> result = mapper.readValue(json, new TypeReference<TimeSeries<Long>>() {});
+        Assertions.assertEquals(series.toMap(), result.toMap());
+        Assertions.assertEquals(5, result.getMaxSize());
+    }
+
+    @Test
+    public void testTimeSeriesPropertyIsReadWithValueType() throws Exception {
+        Holder holder = new Holder();
+        holder.series = new TimeSeries<>(3, ChronoUnit.DAYS);
+        holder.series.append(DATE, "a");
+        holder.series.append(DATE.plusDays(1), "b");
+
+        String json = mapper.writeValueAsString(holder);
+        Holder result = mapper.readValue(json, Holder.class);
+
+        Assertions.assertEquals(holder.series.toMap(), result.series.toMap());
+    }
+
+    @Test
+    public void testModuleIsNotRegisteredByJsonMapper() throws Exception {
+        LongTimeSeries series = new LongTimeSeries(3, ChronoUnit.MINUTES);
+        series.append(DATE, 1);
+
+        String json = mapper.writeValueAsString(series);
+
+        assertThrows(RuntimeException.class, () -> JsonMapper.jsonToObject(json, LongTimeSeries.class));
+    }
+
+    @Test
+    public void testEmptySeries() throws Exception {
+        String json = mapper.writeValueAsString(new LongTimeSeries(3));
+
+        Assertions.assertEquals("{\"granularity\":\"PT1M\",\"maxSize\":3,\"values\":[]}", json);
+        Assertions.assertEquals(0, mapper.readValue(json, LongTimeSeries.class).size());
+    }
+
+    @Test
+    public void testFailsOnValuesBeforeHeader() {
+        assertThrows(
+                JsonProcessingException.class,
+                () -> mapper.readValue("{\"values\":[1],\"granularity\":\"PT1M\",\"maxSize\":3}", LongTimeSeries.class));
+    }
+
+    public static class Holder {
+
+        public TimeSeries<String> series;
+
+    }
+
+}
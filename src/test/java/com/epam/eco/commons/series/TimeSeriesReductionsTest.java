@@ -0,0 +1,116 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesReductionsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    public void testSeriesAreReduced() {
+        List<TimeSeries<Long>> series = createSeries(1000);
+
+        long total = TimeSeriesReductions.reduce(
+                series,
+                0L,
+                single -> single.stream().mapToLong(Map.Entry::getValue).sum(),
+                Long::sum);
+
+        long expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            expected += 10L * i + 45;
+        }
+        Assertions.assertEquals(expected, total);
+    }
+
+    @Test
+    public void testSeriesAreReducedOnGivenPool() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int size = TimeSeriesReductions.reduce(
+                    pool, createSeries(100), 0, TimeSeries::size, Integer::sum);
+
+            Assertions.assertEquals(1000, size);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmptyCollectionIsReducedToIdentity() {
+        Assertions.assertEquals(
+                7,
+                TimeSeriesReductions.reduce(new ArrayList<TimeSeries<Long>>(), 7, TimeSeries::size, Integer::sum));
+    }
+
+    @Test
+    public void testSeriesAreMergedByKey() {
+        List<TimeSeries<Long>> series = createSeries(500);
+        Map<LocalDateTime, Long> expected = new TreeMap<>();
+        series.forEach(single -> single.forEach(
+                entry -> expected.merge(entry.getKey(), entry.getValue(), Long::sum)));
+
+        Map<LocalDateTime, Long> merged = TimeSeriesReductions.mergeAll(series, MergeFunction.addLong());
+
+        Assertions.assertEquals(14, merged.size());
+        Assertions.assertEquals(START, merged.keySet().iterator().next());
+        Assertions.assertEquals(expected, merged);
+        Assertions.assertEquals(24750, merged.get(START));
+    }
+
+    @Test
+    public void testMergeAllDoesNotChangeInputs() {
+        TimeSeries<Stats> first = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.stats());
+        TimeSeries<Stats> second = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.stats());
+        first.append(START, Stats.of(1));
+        second.append(START, Stats.of(2));
+
+        for (int i = 0; i < 2; i++) {
+            Map<LocalDateTime, Stats> merged = TimeSeriesReductions.mergeAll(List.of(first, second), MergeFunction.stats());
+
+            Assertions.assertEquals(2, merged.get(START).getCount());
+        }
+        Assertions.assertEquals(1, first.value(START).getCount());
+        Assertions.assertEquals(1, second.value(START).getCount());
+    }
+
+    private static List<TimeSeries<Long>> createSeries(int count) {
+        List<TimeSeries<Long>> series = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TimeSeries<Long> single = new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.addLong());
+            for (int j = 0; j < 10; j++) {
+                single.append(START.plusMinutes(i % 5 + j), (long) i + j);
+            }
+            series.add(single);
+        }
+        return series;
+    }
+
+}
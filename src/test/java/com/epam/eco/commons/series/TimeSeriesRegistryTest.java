@@ -0,0 +1,210 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.epam.eco.commons.utils.MutableClock;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TimeSeriesRegistryTest {
+
+    @Test
+    public void testSeriesAreCreatedOnce() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        TimeSeriesRegistry<String, LongTimeSeries> registry = new TimeSeriesRegistry<>(
+                key -> {
+                    created.incrementAndGet();
+                    return new LongTimeSeries(10);
+                },
+                100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<LongTimeSeries>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> registry.getOrCreate("metric")));
+            }
+            LongTimeSeries first = futures.get(0).get();
+            for (Future<LongTimeSeries> future : futures) {
+                Assertions.assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertEquals(1, registry.size());
+        Assertions.assertSame(registry.getOrCreate("metric"), registry.get("metric"));
+        Assertions.assertNull(registry.get("other"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAreEvictedOverMaxSeries() {
+        MutableClock clock = new MutableClock(Instant.EPOCH);
+        TimeSeriesRegistry<Integer, LongTimeSeries> registry = new TimeSeriesRegistry<>(
+                key -> new LongTimeSeries(10),
+                10,
+                Long.MAX_VALUE,
+                null,
+                TimeSeriesRegistry::estimateBytes,
+                clock);
+
+        for (int i = 0; i < 10; i++) {
+            registry.getOrCreate(i);
+            clock.advance(Duration.ofSeconds(1));
+        }
+        registry.get(0);
+        clock.advance(Duration.ofSeconds(1));
+
+        registry.getOrCreate(10);
+
+        Assertions.assertEquals(9, registry.size());
+        Assertions.assertEquals(2, registry.getEvictedCount());
+        Assertions.assertNotNull(registry.get(0));
+        Assertions.assertNull(registry.get(1));
+        Assertions.assertNull(registry.get(2));
+        Assertions.assertNotNull(registry.get(3));
+        Assertions.assertNotNull(registry.get(10));
+    }
+
+    @Test
+    public void testEstimatedBytesAreCapped() {
+        TimeSeriesRegistry<Integer, LongTimeSeries> registry = new TimeSeriesRegistry<>(
+                key -> new LongTimeSeries(10),
+                Integer.MAX_VALUE,
+                1000,
+                null,
+                series -> 100,
+                Clock.systemUTC());
+
+        for (int i = 0; i < 100; i++) {
+            registry.getOrCreate(i);
+            Assertions.assertTrue(registry.getEstimatedBytes() <= 1000);
+        }
+        Assertions.assertEquals(registry.size() * 100L, registry.getEstimatedBytes());
+
+        registry.clear();
+
+        Assertions.assertEquals(0, registry.size());
+        Assertions.assertEquals(0, registry.getEstimatedBytes());
+    }
+
+    @Test
+    public void testIdleAreEvicted() {
+        MutableClock clock = new MutableClock(Instant.EPOCH);
+        TimeSeriesRegistry<String, TimeSeries<String>> registry = new TimeSeriesRegistry<>(
+                key -> new TimeSeries<>(10),
+                10,
+                Long.MAX_VALUE,
+                Duration.ofMinutes(5),
+                TimeSeriesRegistry::estimateBytes,
+                clock);
+
+        registry.getOrCreate("a");
+        registry.getOrCreate("b");
+        clock.advance(Duration.ofMinutes(4));
+        registry.get("a");
+        clock.advance(Duration.ofMinutes(2));
+
+        Assertions.assertEquals(1, registry.evictIdle());
+        Assertions.assertNotNull(registry.get("a"));
+        Assertions.assertNull(registry.get("b"));
+        Assertions.assertEquals(TimeSeriesRegistry.estimateBytes(new TimeSeries<>(10)), registry.getEstimatedBytes());
+    }
+
+    @Test
+    public void testBytesEstimatedBySize() {
+        long bare = TimeSeriesRegistry.estimateBytes(new Object());
+
+        Object[][] series = {
+                {new ConcurrentLongTimeSeries(10), new ConcurrentLongTimeSeries(100)},
+                {new BufferedTimeSeries<>(10, MergeFunction.replace()),
+                        new BufferedTimeSeries<>(100, MergeFunction.replace())},
+                {new RateTimeSeries(10, ChronoUnit.MINUTES), new RateTimeSeries(100, ChronoUnit.MINUTES)},
+                {new TieredTimeSeries<>(List.of(new TimeSeries<String>(10))),
+                        new TieredTimeSeries<>(List.of(new TimeSeries<String>(100)))}};
+        for (Object[] pair : series) {
+            long small = TimeSeriesRegistry.estimateBytes(pair[0]);
+            long large = TimeSeriesRegistry.estimateBytes(pair[1]);
+            Assertions.assertTrue(small > bare, pair[0].getClass().getSimpleName());
+            Assertions.assertTrue(large > small, pair[0].getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        TimeSeriesRegistry<String, DoubleTimeSeries> registry =
+                new TimeSeriesRegistry<>(key -> new DoubleTimeSeries(10), 10);
+
+        DoubleTimeSeries series = registry.getOrCreate("a");
+
+        Assertions.assertSame(series, registry.remove("a"));
+        Assertions.assertNull(registry.remove("a"));
+        Assertions.assertEquals(0, registry.size());
+        Assertions.assertEquals(0, registry.getEstimatedBytes());
+        Assertions.assertEquals(0, registry.getEvictedCount());
+    }
+
+    @Test
+    public void testForEach() {
+        TimeSeriesRegistry<String, LongTimeSeries> registry =
+                new TimeSeriesRegistry<>(key -> new LongTimeSeries(10), 10);
+        registry.getOrCreate("a");
+        registry.getOrCreate("b");
+
+        Map<String, LongTimeSeries> visited = new HashMap<>();
+        registry.forEach(visited::put);
+
+        Assertions.assertEquals(2, visited.size());
+        Assertions.assertSame(registry.get("a"), visited.get("a"));
+    }
+
+    @Test
+    public void testFailsOnInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new TimeSeriesRegistry<>(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeriesRegistry<>(key -> key, 0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new TimeSeriesRegistry<>(key -> key, 10, 0, null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new TimeSeriesRegistry<>(key -> key, 10, 10, Duration.ZERO));
+
+        TimeSeriesRegistry<String, String> registry = new TimeSeriesRegistry<>(key -> null, 10);
+        assertThrows(NullPointerException.class, () -> registry.getOrCreate(null));
+        assertThrows(NullPointerException.class, () -> registry.getOrCreate("a"));
+    }
+
+}
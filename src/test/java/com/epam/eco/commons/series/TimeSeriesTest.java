@@ -15,16 +15,26 @@
  *******************************************************************************/
 package com.epam.eco.commons.series;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import com.epam.eco.commons.utils.MutableClock;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -123,6 +133,37 @@ public class TimeSeriesTest {
         });
     }
 
+    @Test
+    public void testCopiesIsolatedFromChanges() {
+        TimeSeries<Integer> series = new TimeSeries<>(3, MergeFunction.addInt());
+
+        LocalDateTime now = LocalDateTime.now();
+        series.append(now, 1);
+        series.append(now.plusMinutes(1), 1);
+
+        Map<LocalDateTime, Integer> view = series.toMap();
+        TimeSeries<Integer> snapshot = series.unmodifiableCopy();
+        TimeSeries<Integer> copy = series.copy();
+
+        series.append(now.plusMinutes(1), 1);
+        series.append(now.plusMinutes(2), 1);
+        series.append(now.plusMinutes(3), 1);
+
+        copy.append(now.plusMinutes(5), 5);
+
+        Assertions.assertEquals(3, series.size());
+        Assertions.assertEquals(3, view.size());
+        Assertions.assertEquals(Integer.valueOf(2), view.get(series.key(now.plusMinutes(1))));
+        Assertions.assertEquals(Integer.valueOf(1), series.lastValue());
+
+        Assertions.assertEquals(2, snapshot.size());
+        Assertions.assertEquals(Integer.valueOf(1), snapshot.value(now.plusMinutes(1)));
+
+        Assertions.assertEquals(3, copy.size());
+        Assertions.assertEquals(Integer.valueOf(1), copy.value(now.plusMinutes(1)));
+        Assertions.assertEquals(Integer.valueOf(5), copy.lastValue());
+    }
+
     @Test
     public void testDataIterated() {
         TimeSeries<String> series = new TimeSeries<>(3);
@@ -380,6 +421,213 @@ public class TimeSeriesTest {
         Assertions.assertEquals(Integer.valueOf(15), series.value(date));
     }
 
+    @Test
+    public void testAppendedWithClock() {
+        ZoneId zone = ZoneId.of("Asia/Kolkata");
+        Instant instant = Instant.parse("2022-03-04T10:15:30.123Z");
+        TimeSeries<Integer> series = new TimeSeries<>(
+                3, ChronoUnit.MINUTES, MergeFunction.addInt(), Clock.fixed(instant, zone));
+
+        series.append(1);
+        series.append(2);
+
+        Assertions.assertEquals(1, series.size());
+        Assertions.assertEquals(LocalDateTime.of(2022, 3, 4, 15, 45), series.lastKey());
+        Assertions.assertEquals(Integer.valueOf(3), series.lastValue());
+    }
+
+    @Test
+    public void testEpochMillisAppendedInClockZone() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        TimeSeries<Integer> series = new TimeSeries<>(
+                5, ChronoUnit.HOURS, MergeFunction.addInt(), Clock.system(zone));
+
+        long date = Instant.parse("2022-03-13T06:59:59.999Z").toEpochMilli();
+
+        series.append(date, 1);
+        series.append(date + 1, 2);
+        series.append(date + 2, 3);
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals(Integer.valueOf(1), series.value(LocalDateTime.of(2022, 3, 13, 1, 0)));
+        Assertions.assertEquals(Integer.valueOf(5), series.value(LocalDateTime.of(2022, 3, 13, 3, 0)));
+    }
+
+    @Test
+    public void testSubSeriesResolved() {
+        TimeSeries<Integer> series = new TimeSeries<>(10);
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 10, 0);
+        for (int i = 0; i < 10; i++) {
+            if (i != 4) {
+                series.append(start.plusMinutes(i), i);
+            }
+        }
+
+        TimeSeries<Integer> subSeries = series.subSeries(start.plusMinutes(3), start.plusMinutes(6));
+        Assertions.assertEquals(2, subSeries.size());
+        Assertions.assertEquals(Integer.valueOf(3), subSeries.firstValue());
+        Assertions.assertEquals(Integer.valueOf(5), subSeries.lastValue());
+
+        subSeries = series.subSeries(start.plusSeconds(30), start.plusMinutes(2).plusSeconds(30));
+        Assertions.assertEquals(2, subSeries.size());
+        Assertions.assertEquals(Integer.valueOf(1), subSeries.firstValue());
+        Assertions.assertEquals(Integer.valueOf(2), subSeries.lastValue());
+
+        Assertions.assertEquals(0, series.subSeries(start.plusMinutes(6), start.plusMinutes(3)).size());
+        Assertions.assertEquals(9, series.subSeries(start.minusDays(1), start.plusDays(1)).size());
+
+        TimeSeries<Integer> headSeries = series.headSeries(start.plusMinutes(2));
+        Assertions.assertEquals(2, headSeries.size());
+        Assertions.assertEquals(Integer.valueOf(1), headSeries.lastValue());
+
+        TimeSeries<Integer> tailSeries = series.tailSeries(start.plusMinutes(8));
+        Assertions.assertEquals(2, tailSeries.size());
+        Assertions.assertEquals(Integer.valueOf(8), tailSeries.firstValue());
+
+        assertThrows(UnsupportedOperationException.class, () -> tailSeries.append(start.plusHours(1), 1));
+    }
+
+    @Test
+    public void testSubSeriesNotAffectedByInPlaceMerges() {
+        TimeSeries<Stats> series = new TimeSeries<>(10, MergeFunction.stats());
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 10, 0);
+        series.append(start, Stats.of(1));
+        series.append(start.plusMinutes(1), Stats.of(2));
+
+        TimeSeries<Stats> subSeries = series.subSeries(start, start.plusMinutes(2));
+        series.append(start.plusMinutes(1), Stats.of(3));
+
+        Assertions.assertEquals(1, subSeries.lastValue().getCount());
+        Assertions.assertEquals(2, series.lastValue().getCount());
+    }
+
+    @Test
+    public void testKeyAndValueAtIndexResolved() {
+        TimeSeries<Integer> series = new TimeSeries<>(10);
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 10, 0);
+        series.append(start, 0);
+        series.append(start.plusMinutes(1), 1);
+        series.append(start.plusMinutes(2), 2);
+
+        Assertions.assertEquals(start.plusMinutes(1), series.keyAt(1));
+        Assertions.assertEquals(Integer.valueOf(2), series.valueAt(2));
+
+        series.append(start.plusMinutes(10), 10);
+
+        Assertions.assertEquals(start.plusMinutes(10), series.keyAt(3));
+        Assertions.assertEquals(Integer.valueOf(10), series.valueAt(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.keyAt(4));
+    }
+
+    @Test
+    public void testExpiredBucketsEvicted() {
+        MutableClock clock = new MutableClock(Instant.parse("2022-01-01T10:00:00Z"));
+        TimeSeries<Integer> series = new TimeSeries<>(
+                100, Duration.ofMinutes(5), ChronoUnit.MINUTES, MergeFunction.replace(), clock);
+
+        for (int i = 0; i < 10; i++) {
+            series.append(i);
+            clock.advance(Duration.ofSeconds(30));
+        }
+
+        Assertions.assertEquals(5, series.size());
+
+        clock.advance(Duration.ofMinutes(3));
+        Assertions.assertEquals(Integer.valueOf(7), series.firstValue());
+        Assertions.assertEquals(2, series.size());
+
+        TimeSeries<Integer> copy = series.unmodifiableCopy();
+        clock.advance(Duration.ofMinutes(10));
+        Assertions.assertEquals(2, copy.size());
+        Assertions.assertEquals(0, series.size());
+        Assertions.assertEquals(0, series.evictExpired());
+    }
+
+    @Test
+    public void testExpiredBucketsSwept() {
+        MutableClock clock = new MutableClock(Instant.parse("2022-01-01T10:00:00Z"));
+        TimeSeries<Integer> series = new TimeSeries<>(
+                100, Duration.ofMinutes(5), ChronoUnit.MINUTES, MergeFunction.replace(), clock);
+        series.append(1);
+        List<LocalDateTime> evicted = new ArrayList<>();
+        series.addListener(new TimeSeriesListener<>() {
+
+            @Override
+            public void onEvicted(LocalDateTime key, Integer value) {
+                evicted.add(key);
+            }
+
+        });
+
+        try (TimeSeriesSweeper sweeper = new TimeSeriesSweeper(Duration.ofHours(1))) {
+            sweeper.register(series);
+            Assertions.assertEquals(1, sweeper.size());
+
+            clock.advance(Duration.ofMinutes(10));
+            sweeper.sweep();
+
+            synchronized (series) {
+                Assertions.assertEquals(List.of(LocalDateTime.of(2022, 1, 1, 10, 0)), evicted);
+                Assertions.assertEquals(0, series.evictExpired());
+            }
+        }
+    }
+
+    @Test
+    public void testSweeperEvictsSeriesAfterFailedOne() {
+        MutableClock clock = new MutableClock(Instant.parse("2022-03-01T10:00:00Z"));
+        TimeSeries<Integer> series = new TimeSeries<>(
+                100, Duration.ofMinutes(5), ChronoUnit.MINUTES, MergeFunction.replace(), clock);
+        series.append(1);
+        List<LocalDateTime> evicted = new ArrayList<>();
+        series.addListener(new TimeSeriesListener<>() {
+
+            @Override
+            public void onEvicted(LocalDateTime key, Integer value) {
+                evicted.add(key);
+            }
+
+        });
+        TimeSeries<Integer> failing = new TimeSeries<>(
+                100, Duration.ofMinutes(5), ChronoUnit.MINUTES, MergeFunction.replace(), clock) {
+            @Override
+            public int evictExpired() {
+                throw new IllegalStateException();
+            }
+        };
+
+        try (TimeSeriesSweeper sweeper = new TimeSeriesSweeper(Duration.ofHours(1))) {
+            sweeper.register(failing);
+            sweeper.register(series);
+
+            clock.advance(Duration.ofMinutes(10));
+            sweeper.sweep();
+
+            synchronized (series) {
+                Assertions.assertEquals(List.of(LocalDateTime.of(2022, 3, 1, 10, 0)), evicted);
+                Assertions.assertEquals(0, series.evictExpired());
+            }
+        }
+    }
+
+    @Test
+    public void testIteratorFailsOnConcurrentModification() {
+        TimeSeries<Integer> series = new TimeSeries<>(2);
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 10, 0);
+        series.append(start, 0);
+        series.append(start.plusMinutes(1), 1);
+
+        Iterator<LocalDateTime> iterator = series.toMap().keySet().iterator();
+        Assertions.assertEquals(start, iterator.next());
+        series.append(start.plusMinutes(2), 2);
+
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
     @Test
     public void testUnmodifiable1() {
         assertThrows(Exception.class, () -> new TimeSeries<>().toMap().put(LocalDateTime.now(), "1"));
@@ -486,6 +734,11 @@ public class TimeSeriesTest {
         assertThrows(Exception.class, () -> new TimeSeries<>().previousSerialValue(null));
     }
 
+    @Test
+    public void testFailsOnIllegalArguments19() {
+        assertThrows(Exception.class, () -> new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.replace(), null));
+    }
+
     @Test
     public void testFailsOnIllegalArguments18() {
         assertThrows(Exception.class, () -> {
@@ -497,4 +750,248 @@ public class TimeSeriesTest {
             series.append(now.minusHours(1), "2");
         });
     }
+
+    @Test
+    public void testLateValuesWithinAllowedLatenessAreMerged() {
+        TimeSeries<Integer> series = new TimeSeries<>(
+                10,
+                null,
+                Duration.ofMinutes(5),
+                LatePolicy.REJECT,
+                ChronoUnit.MINUTES,
+                MergeFunction.addInt(),
+                Clock.systemUTC());
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        series.append(start, 1);
+        series.append(start.plusMinutes(2), 2);
+        series.append(start.plusMinutes(5), 3);
+        series.append(start.plusMinutes(2).plusSeconds(10), 4);
+        series.append(start.plusMinutes(1), 5);
+        series.append(start.plusSeconds(30), 6);
+
+        Assertions.assertEquals(4, series.size());
+        Iterator<Entry<LocalDateTime, Integer>> iterator = series.iterator();
+        Assertions.assertEquals(Map.entry(start, 7), iterator.next());
+        Assertions.assertEquals(Map.entry(start.plusMinutes(1), 5), iterator.next());
+        Assertions.assertEquals(Map.entry(start.plusMinutes(2), 6), iterator.next());
+        Assertions.assertEquals(Map.entry(start.plusMinutes(5), 3), iterator.next());
+        Assertions.assertEquals(start.plusMinutes(5), series.lastKey());
+        Assertions.assertEquals(start.plusMinutes(1), series.keyAt(1));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> series.append(start.minusSeconds(1), 1));
+    }
+
+    @Test
+    public void testLatenessOfEpochMillisIsMeasuredFromDate() {
+        TimeSeries<Integer> series = new TimeSeries<>(
+                10,
+                null,
+                Duration.ofMillis(500),
+                LatePolicy.REJECT,
+                ChronoUnit.MINUTES,
+                MergeFunction.addInt(),
+                Clock.systemUTC());
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 12, 1);
+        long startMillis = start.toInstant(ZoneOffset.UTC).toEpochMilli();
+        series.append(startMillis, 1);
+        series.append(startMillis - 200, 2);
+        series.append(start.minusNanos(300_000_000), 3);
+
+        Assertions.assertEquals(5, series.value(start.minusMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> series.append(startMillis - 600, 4));
+        assertThrows(IllegalArgumentException.class, () -> series.append(start.minusNanos(600_000_000), 4));
+    }
+
+    @Test
+    public void testValuesLaterThanAllowedLatenessAreDropped() {
+        TimeSeries<Integer> series = new TimeSeries<>(
+                3,
+                null,
+                Duration.ofMinutes(2),
+                LatePolicy.DROP,
+                ChronoUnit.MINUTES,
+                MergeFunction.addInt(),
+                Clock.systemUTC());
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        series.append(start.plusMinutes(10), 1);
+        series.append(start.plusMinutes(7), 2);
+        series.append(start.plusMinutes(8), 3);
+        series.append(start.plusMinutes(9), 4);
+
+        Assertions.assertEquals(1, series.getDroppedCount());
+        Assertions.assertEquals(3, series.size());
+        Assertions.assertEquals(start.plusMinutes(8), series.firstKey());
+        Assertions.assertNull(series.value(start.plusMinutes(7)));
+        Assertions.assertEquals(1, series.copy().getDroppedCount());
+    }
+
+    @Test
+    public void testLateValueIsNotVisibleInCopy() {
+        TimeSeries<Integer> series = new TimeSeries<>(
+                10,
+                null,
+                Duration.ofMinutes(5),
+                LatePolicy.REJECT,
+                ChronoUnit.MINUTES,
+                MergeFunction.addInt(),
+                Clock.systemUTC());
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        series.append(start, 1);
+        series.append(start.plusMinutes(2), 2);
+        TimeSeries<Integer> copy = series.copy();
+        series.append(start.plusMinutes(1), 3);
+
+        Assertions.assertEquals(2, copy.size());
+        Assertions.assertEquals(3, series.size());
+    }
+
+    @Test
+    public void testFailsOnNegativeAllowedLateness() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new TimeSeries<>(
+                        10,
+                        null,
+                        Duration.ofMinutes(-1),
+                        LatePolicy.REJECT,
+                        ChronoUnit.MINUTES,
+                        MergeFunction.replace(),
+                        Clock.systemUTC()));
+    }
+
+    @Test
+    public void testMapViewResolvesOnlyBucketKeys() {
+        TimeSeries<Integer> series = new TimeSeries<>(3, ChronoUnit.MINUTES, MergeFunction.addInt());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            series.append(start.plusMinutes(i), i);
+        }
+
+        Map<LocalDateTime, Integer> map = series.toMap();
+
+        Assertions.assertEquals(
+                Map.of(start.plusMinutes(2), 2, start.plusMinutes(3), 3, start.plusMinutes(4), 4),
+                map);
+        Assertions.assertEquals(3, map.get(start.plusMinutes(3)));
+        Assertions.assertNull(map.get(start.plusMinutes(3).plusSeconds(1)));
+        Assertions.assertNull(map.get(start));
+        Assertions.assertFalse(map.containsKey("key"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> map.put(start, 1));
+
+        series.append(start.plusMinutes(5), 5);
+
+        Assertions.assertEquals(start.plusMinutes(3), map.keySet().iterator().next());
+    }
+
+    @Test
+    public void testBucketIsRemovedWhenMergedToNull() {
+        TimeSeries<Integer> series = new TimeSeries<>(
+                5,
+                null,
+                Duration.ofMinutes(5),
+                LatePolicy.REJECT,
+                ChronoUnit.MINUTES,
+                (oldValue, newValue) -> newValue == 0 ? null : newValue,
+                Clock.systemUTC());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        series.append(start, 1);
+        series.append(start.plusMinutes(1), 2);
+        series.append(start.plusMinutes(2), 3);
+
+        series.append(start.plusMinutes(1), 0);
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertNull(series.value(start.plusMinutes(1)));
+        Assertions.assertEquals(start.plusMinutes(2), series.keyAt(1));
+    }
+
+    @Test
+    public void testSeriesIsStreamed() {
+        TimeSeries<Integer> series = new TimeSeries<>(1000, ChronoUnit.MINUTES, MergeFunction.addInt());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            series.append(start.plusMinutes(i), i);
+        }
+
+        Assertions.assertEquals(999 * 1000 / 2, series.stream().mapToInt(Entry::getValue).sum());
+        Assertions.assertEquals(999 * 1000 / 2, series.parallelStream().mapToInt(Entry::getValue).sum());
+        Assertions.assertEquals(
+                series.keyAt(500),
+                series.parallelStream().skip(500).findFirst().orElseThrow().getKey());
+        Assertions.assertEquals(1000, series.spliterator().getExactSizeIfKnown());
+    }
+
+    @Test
+    public void testStreamIsNotAffectedByModifications() {
+        TimeSeries<Integer> series = new TimeSeries<>(3, ChronoUnit.MINUTES, MergeFunction.addInt());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            series.append(start.plusMinutes(i), i);
+        }
+
+        Iterator<Entry<LocalDateTime, Integer>> iterator = series.stream().iterator();
+        series.append(start.plusMinutes(3), 3);
+        series.append(start.plusMinutes(3), 3);
+
+        Assertions.assertEquals(start, iterator.next().getKey());
+        Assertions.assertEquals(1, iterator.next().getValue());
+        Assertions.assertEquals(2, iterator.next().getValue());
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertEquals(6, series.lastValue());
+    }
+
+    @Test
+    public void testAppendAllMergesBucketsOnce() {
+        TimeSeries<Integer> series = new TimeSeries<>(3, ChronoUnit.MINUTES, MergeFunction.addInt());
+        List<String> events = new ArrayList<>();
+        series.addListener(new TimeSeriesListener<>() {
+
+            @Override
+            public void onAppended(LocalDateTime key, Integer oldValue, Integer newValue) {
+                events.add(key.getMinute() + ":" + oldValue + "->" + newValue);
+            }
+
+            @Override
+            public void onEvicted(LocalDateTime key, Integer value) {
+                events.add(key.getMinute() + ":evicted");
+            }
+
+        });
+
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        series.append(start, 1);
+        series.appendAll(List.of(
+                Map.entry(start.plusSeconds(10), 2),
+                Map.entry(start.plusSeconds(20), 3),
+                Map.entry(start.plusMinutes(1), 4),
+                Map.entry(start.plusMinutes(2), 5),
+                Map.entry(start.plusMinutes(3), 6),
+                Map.entry(start.plusMinutes(3).plusSeconds(1), 7)).iterator());
+
+        Assertions.assertEquals(
+                List.of("0:null->1", "0:1->6", "1:null->4", "2:null->5", "3:null->13", "0:evicted"),
+                events);
+        Assertions.assertEquals(3, series.size());
+        Assertions.assertEquals(start.plusMinutes(1), series.firstKey());
+        Assertions.assertEquals(13, series.lastValue());
+    }
+
+    @Test
+    public void testAppendAllRejectsUnorderedEntries() {
+        TimeSeries<Integer> series = new TimeSeries<>(3, ChronoUnit.MINUTES, MergeFunction.addInt());
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> series.appendAll(List.of(
+                        Map.entry(start.plusMinutes(1), 1),
+                        Map.entry(start, 2)).iterator()));
+    }
+
 }
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class TopKSketchTest {
+
+    @Test
+    public void testItemsAreExactWithinCapacity() {
+        TopKSketch<String> sketch = new TopKSketch<>(3);
+        sketch.add("a", 5).add("b", 3).add("c").add("a");
+
+        List<TopKSketch.Item<String>> top = sketch.top(2);
+
+        Assertions.assertEquals(2, top.size());
+        Assertions.assertEquals("a", top.get(0).getItem());
+        Assertions.assertEquals(6, top.get(0).getCount());
+        Assertions.assertEquals(0, top.get(0).getError());
+        Assertions.assertEquals("b", top.get(1).getItem());
+        Assertions.assertEquals(10, sketch.getTotal());
+        Assertions.assertEquals(1, sketch.count("c"));
+        Assertions.assertEquals(0, sketch.count("d"));
+    }
+
+    @Test
+    public void testLeastFrequentIsReplaced() {
+        TopKSketch<String> sketch = new TopKSketch<>(2);
+        sketch.add("a", 5).add("b", 2).add("c");
+
+        Assertions.assertEquals(2, sketch.size());
+        Assertions.assertEquals(0, sketch.count("b"));
+        Assertions.assertEquals(3, sketch.count("c"));
+        Assertions.assertEquals(2, sketch.top(2).get(1).getError());
+    }
+
+    @Test
+    public void testHeavyHittersAreFound() {
+        Random random = new Random(42);
+        Map<Integer, Long> actual = new HashMap<>();
+        TopKSketch<Integer> sketch = new TopKSketch<>(50);
+        for (int i = 0; i < 100_000; i++) {
+            // a few frequent items over a long tail
+            int item = random.nextInt(4) == 0 ? random.nextInt(5) : 100 + random.nextInt(10_000);
+            actual.merge(item, 1L, Long::sum);
+            sketch.add(item);
+        }
+
+        List<TopKSketch.Item<Integer>> top = sketch.top(5);
+
+        for (TopKSketch.Item<Integer> item : top) {
+            Assertions.assertTrue(item.getItem() < 5);
+            long count = actual.get(item.getItem());
+            Assertions.assertTrue(item.getCount() >= count);
+            Assertions.assertTrue(item.getCount() - item.getError() <= count);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        TopKSketch<String> first = new TopKSketch<>(2);
+        first.add("a", 10).add("b", 4);
+        TopKSketch<String> second = new TopKSketch<>(2);
+        second.add("b", 7).add("c", 1).add("d", 2);
+
+        first.merge(second);
+
+        List<TopKSketch.Item<String>> top = first.top(2);
+        // "d" evicted "c" from the second sketch, so its min count is 3
+        Assertions.assertEquals("a", top.get(0).getItem());
+        Assertions.assertEquals(13, top.get(0).getCount());
+        Assertions.assertEquals(3, top.get(0).getError());
+        Assertions.assertEquals("b", top.get(1).getItem());
+        Assertions.assertEquals(11, top.get(1).getCount());
+        Assertions.assertEquals(0, top.get(1).getError());
+        Assertions.assertEquals(24, first.getTotal());
+        Assertions.assertEquals(2, first.size());
+
+        first.merge(first);
+        Assertions.assertEquals(48, first.getTotal());
+        Assertions.assertEquals(22, first.count("b"));
+    }
+
+    @Test
+    public void testSeriesBucketsAreMergedInPlace() {
+        TimeSeries<TopKSketch<String>> series =
+                new TimeSeries<>(10, ChronoUnit.MINUTES, MergeFunction.topKSketch());
+        LocalDateTime date = LocalDateTime.of(2022, 3, 1, 10, 0);
+        TopKSketch<String> first = new TopKSketch<String>(10).add("topic-1");
+        series.append(date, first);
+        series.append(date.plusSeconds(10), new TopKSketch<String>(10).add("topic-1").add("topic-2"));
+
+        Assertions.assertSame(first, series.value(date));
+        Assertions.assertEquals(2, series.value(date).count("topic-1"));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        TopKSketch<String> sketch = new TopKSketch<String>(2).add("a");
+        TopKSketch<String> copy = sketch.copy().add("a");
+
+        Assertions.assertEquals(1, sketch.count("a"));
+        Assertions.assertEquals(2, copy.count("a"));
+    }
+
+    @Test
+    public void testFailsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSketch<>(0));
+        assertThrows(NullPointerException.class, () -> new TopKSketch<>(1).add(null));
+        assertThrows(IllegalArgumentException.class, () -> new TopKSketch<>(1).add("a", -1));
+        assertThrows(IllegalArgumentException.class, () -> new TopKSketch<>(1).merge(new TopKSketch<>(2)));
+    }
+
+}
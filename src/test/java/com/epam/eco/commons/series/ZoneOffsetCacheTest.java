@@ -0,0 +1,68 @@
+/*******************************************************************************
+ *  Copyright 2022 EPAM Systems
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License.  You may obtain a copy
+ *  of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ *******************************************************************************/
+package com.epam.eco.commons.series;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Andrei_Tytsik
+ */
+public class ZoneOffsetCacheTest {
+
+    @Test
+    public void testOffsetsResolvedAcrossTransitions() {
+        ZoneId zone = ZoneId.of("Europe/Berlin");
+        ZoneOffsetCache offsets = ZoneOffsetCache.of(zone);
+
+        long from = Instant.parse("2021-10-30T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2022-04-01T00:00:00Z").toEpochMilli();
+        for (long date = from; date < to; date += 997_331) {
+            LocalDateTime expected = LocalDateTime.ofInstant(Instant.ofEpochMilli(date), zone);
+            long local = offsets.toLocalMillis(date);
+            Assertions.assertEquals(expected.toInstant(ZoneOffset.UTC).toEpochMilli(), local);
+        }
+    }
+
+    @Test
+    public void testOffsetsResolvedAfterExactTransition() {
+        ZoneOffsetCache offsets = ZoneOffsetCache.of(ZoneId.of("Europe/Berlin"));
+
+        long transition = Instant.parse("2024-10-27T01:00:00Z").toEpochMilli();
+        Assertions.assertEquals(transition + 3_600_000L, offsets.toLocalMillis(transition));
+        Assertions.assertEquals(transition - 1 + 7_200_000L, offsets.toLocalMillis(transition - 1));
+
+        offsets.toLocalMillis(transition);
+        long summer = Instant.parse("2024-07-01T12:00:00Z").toEpochMilli();
+        Assertions.assertEquals(summer + 7_200_000L, offsets.toLocalMillis(summer));
+        offsets.toLocalMillis(transition);
+        Assertions.assertEquals(summer + 7_200_000L, offsets.toLocalMillis(summer));
+    }
+
+    @Test
+    public void testFixedOffsetResolved() {
+        ZoneOffsetCache offsets = ZoneOffsetCache.of(ZoneOffset.ofHours(-3));
+
+        Assertions.assertEquals(0, offsets.toLocalMillis(3 * 3_600_000L));
+        Assertions.assertEquals(-3 * 3_600_000L, offsets.toLocalMillis(0));
+    }
+
+}